@@ -1,12 +1,27 @@
 package com.chequer.jdbcnet.bridge;
 
+import com.chequer.jdbcnet.bridge.codec.ResultSetChunkMarshaller;
+import com.chequer.jdbcnet.bridge.manager.AdmissionControl;
+import com.chequer.jdbcnet.bridge.manager.CallScope;
+import com.chequer.jdbcnet.bridge.manager.ChunkBufferPool;
+import com.chequer.jdbcnet.bridge.manager.ConnectionPool;
+import com.chequer.jdbcnet.bridge.manager.JdbcExecutor;
+import com.chequer.jdbcnet.bridge.manager.ObjectManager;
+import com.chequer.jdbcnet.bridge.manager.StatementCache;
+import com.chequer.jdbcnet.bridge.manager.TransportTracker;
+import com.chequer.jdbcnet.bridge.models.ChunkPrefetcher;
 import com.chequer.jdbcnet.bridge.service.*;
 import io.grpc.Server;
 import io.grpc.ServerBuilder;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.protobuf.ProtoUtils;
+import io.grpc.stub.ServerCalls;
 import org.apache.commons.cli.DefaultParser;
 import org.apache.commons.cli.Option;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
+import proto.reader.Reader;
+import proto.reader.ReaderServiceGrpc;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
@@ -19,12 +34,23 @@ public class Main {
     private static Server server;
 
     private static int start(String bridgeId, int bridgeHostPort) throws IOException {
+        var databaseService = new DatabaseServiceImpl();
+        var statementService = new StatementServiceImpl();
+        var readerService = new ReaderServiceImpl();
+
         server = ServerBuilder.forPort(0)
                 .addService(new DriverServiceImpl())
-                .addService(new DatabaseServiceImpl())
-                .addService(new StatementServiceImpl())
+                .addService(databaseService)
+                .addService(statementService)
                 .addService(new MetaDataServiceImpl())
-                .addService(new ReaderServiceImpl())
+                .addService(bindReaderService(readerService))
+                .addService(new BridgeServiceImpl())
+                .addService(new SessionServiceImpl(databaseService, statementService, readerService))
+                .intercept(TransportTracker.INSTANCE)
+                .intercept(CallScope.INSTANCE)
+                .intercept(JdbcExecutor.INSTANCE)
+                .addTransportFilter(TransportTracker.INSTANCE)
+                .callExecutor(JdbcExecutor.INSTANCE)
                 .build()
                 .start();
 
@@ -54,6 +80,24 @@ public class Main {
         return bridePort;
     }
 
+    // readResultSet is bound with ResultSetChunkMarshaller, so chunks are written without building a ReadResultSetResponse
+    private static ServerServiceDefinition bindReaderService(ReaderServiceImpl readerService) {
+        var readResultSetMethod = ReaderServiceGrpc.getReadResultSetMethod().toBuilder(
+                ProtoUtils.marshaller(Reader.ReadResultSetRequest.getDefaultInstance()),
+                ResultSetChunkMarshaller.INSTANCE).build();
+
+        var builder = ServerServiceDefinition.builder(ReaderServiceGrpc.SERVICE_NAME)
+                .addMethod(readResultSetMethod, ServerCalls.asyncBidiStreamingCall(readerService::readResultSetChunks));
+
+        for (var method : readerService.bindService().getMethods()) {
+            if (!method.getMethodDescriptor().getFullMethodName().equals(readResultSetMethod.getFullMethodName())) {
+                builder.addMethod(method);
+            }
+        }
+
+        return builder.build();
+    }
+
     private static void blockUntilShutdown() throws InterruptedException {
         if (server != null) {
             server.awaitTermination();
@@ -65,12 +109,40 @@ public class Main {
 
         var bridgeIdOption = new Option("i", "id", true, "Specifies the bridge id.");
         var bridgeHostPortOption = new Option("p", "port", true, "Specifies the bridge host port.");
+        var chunkPoolSizeOption = new Option(null, "chunk-pool-size", true, "Specifies the maximum bytes of pooled chunk buffers.");
+        var statementCacheSizeOption = new Option(null, "statement-cache-size", true, "Specifies the number of cached prepared statements per connection.");
+        var jdbcThreadsOption = new Option(null, "jdbc-threads", true, "Specifies the number of threads running blocking JDBC calls.");
+        var jdbcQueueOption = new Option(null, "jdbc-queue", true, "Specifies the number of queued JDBC calls past which new calls are rejected.");
+        var prefetchThreadsOption = new Option(null, "prefetch-threads", true, "Specifies the maximum number of threads prefetching result set chunks.");
+        var poolMaxIdleOption = new Option(null, "pool-max-idle", true, "Specifies the number of idle database connections kept per JDBC URL and properties.");
+        var poolMinIdleOption = new Option(null, "pool-min-idle", true, "Specifies the number of idle database connections kept past the pool idle timeout.");
+        var poolIdleTimeoutOption = new Option(null, "pool-idle-timeout", true, "Specifies the seconds after which idle pooled database connections are closed.");
+        var idleTimeoutOption = new Option(null, "idle-timeout", true, "Specifies the seconds after which unused connections, statements and result sets are closed.");
+        var maxExecutionsOption = new Option(null, "max-executions", true, "Specifies the maximum number of concurrently running statements.");
+        var maxResultSetsOption = new Option(null, "max-result-sets", true, "Specifies the maximum number of open result sets.");
+        var maxChunkBytesOption = new Option(null, "max-chunk-bytes", true, "Specifies the maximum bytes of encoded chunks held in memory.");
+        var admissionWaitOption = new Option(null, "admission-wait", true, "Specifies the milliseconds a request over budget waits before it is rejected.");
+        var disconnectGraceOption = new Option(null, "disconnect-grace", true, "Specifies the seconds connections of a disconnected client are kept unused before they are closed.");
 
         bridgeIdOption.setRequired(true);
         bridgeHostPortOption.setRequired(true);
 
         options.addOption(bridgeIdOption);
         options.addOption(bridgeHostPortOption);
+        options.addOption(chunkPoolSizeOption);
+        options.addOption(statementCacheSizeOption);
+        options.addOption(jdbcThreadsOption);
+        options.addOption(jdbcQueueOption);
+        options.addOption(prefetchThreadsOption);
+        options.addOption(poolMaxIdleOption);
+        options.addOption(poolMinIdleOption);
+        options.addOption(poolIdleTimeoutOption);
+        options.addOption(idleTimeoutOption);
+        options.addOption(maxExecutionsOption);
+        options.addOption(maxResultSetsOption);
+        options.addOption(maxChunkBytesOption);
+        options.addOption(admissionWaitOption);
+        options.addOption(disconnectGraceOption);
 
         var parser = new DefaultParser();
 
@@ -79,6 +151,62 @@ public class Main {
             var bridgeId = cmd.getOptionValue("id");
             var bridgeHostPort = Integer.parseInt(cmd.getOptionValue("port"));
 
+            if (cmd.hasOption("chunk-pool-size")) {
+                ChunkBufferPool.setCapacity(Long.parseLong(cmd.getOptionValue("chunk-pool-size")));
+            }
+
+            if (cmd.hasOption("statement-cache-size")) {
+                StatementCache.setCapacity(Integer.parseInt(cmd.getOptionValue("statement-cache-size")));
+            }
+
+            if (cmd.hasOption("jdbc-threads")) {
+                JdbcExecutor.setThreads(Integer.parseInt(cmd.getOptionValue("jdbc-threads")));
+            }
+
+            if (cmd.hasOption("jdbc-queue")) {
+                JdbcExecutor.setMaxQueued(Integer.parseInt(cmd.getOptionValue("jdbc-queue")));
+            }
+
+            if (cmd.hasOption("prefetch-threads")) {
+                ChunkPrefetcher.setThreads(Integer.parseInt(cmd.getOptionValue("prefetch-threads")));
+            }
+
+            if (cmd.hasOption("pool-max-idle")) {
+                ConnectionPool.setMaxIdle(Integer.parseInt(cmd.getOptionValue("pool-max-idle")));
+            }
+
+            if (cmd.hasOption("pool-min-idle")) {
+                ConnectionPool.setMinIdle(Integer.parseInt(cmd.getOptionValue("pool-min-idle")));
+            }
+
+            if (cmd.hasOption("pool-idle-timeout")) {
+                ConnectionPool.setIdleTimeout(Long.parseLong(cmd.getOptionValue("pool-idle-timeout")));
+            }
+
+            if (cmd.hasOption("idle-timeout")) {
+                ObjectManager.setIdleTimeout(Long.parseLong(cmd.getOptionValue("idle-timeout")));
+            }
+
+            if (cmd.hasOption("max-executions")) {
+                AdmissionControl.setMaxExecutions(Integer.parseInt(cmd.getOptionValue("max-executions")));
+            }
+
+            if (cmd.hasOption("max-result-sets")) {
+                AdmissionControl.setMaxResultSets(Integer.parseInt(cmd.getOptionValue("max-result-sets")));
+            }
+
+            if (cmd.hasOption("max-chunk-bytes")) {
+                AdmissionControl.setMaxChunkBytes(Long.parseLong(cmd.getOptionValue("max-chunk-bytes")));
+            }
+
+            if (cmd.hasOption("admission-wait")) {
+                AdmissionControl.setWaitMillis(Long.parseLong(cmd.getOptionValue("admission-wait")));
+            }
+
+            if (cmd.hasOption("disconnect-grace")) {
+                TransportTracker.setGracePeriod(Long.parseLong(cmd.getOptionValue("disconnect-grace")));
+            }
+
             var bridgePort = start(bridgeId, bridgeHostPort);
             System.out.println("JDBC.NET.Bridge is running on port " + bridgePort + "...");
 
@@ -0,0 +1,541 @@
+package com.chequer.jdbcnet.bridge.codec;
+
+import com.chequer.jdbcnet.bridge.manager.ChunkBufferPool;
+import com.chequer.jdbcnet.bridge.utils.Utils;
+import com.google.flatbuffers.FlatBufferBuilder;
+import io.grpc.netty.shaded.io.netty.buffer.ByteBuf;
+import io.grpc.netty.shaded.io.netty.buffer.ByteBufAllocator;
+import org.apache.arrow.flatbuf.*;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * Encodes chunks as Arrow IPC stream messages. The first chunk starts with the schema message, every chunk carries
+ * one record batch and the last chunk ends with the end-of-stream marker, so the concatenated chunks of a result set
+ * form a valid Arrow IPC stream.
+ */
+public class ArrowEncoder implements ChunkEncoder {
+    //region Constants
+    private static final int CONTINUATION = 0xFFFFFFFF;
+    private static final int MAX_DECIMAL_PRECISION = 38;
+    // Characters of a LOB sent as text, so even its UTF-8 or hex form stays within one buffer
+    private static final long MAX_LOB_LENGTH = Integer.MAX_VALUE / 4;
+    //endregion
+
+    //region Fields
+    private final ColumnCodec[] _codecs;
+    private final String[] _names;
+    private final boolean[] _nullable;
+    private final int[] _precision;
+    private final int[] _scale;
+    private final BigInteger[] _decimalLimits;
+    private final ByteBuf[] _validity;
+    private final ByteBuf[] _offsets;
+    private final ByteBuf[] _values;
+    private final int[] _nullCounts;
+    private int _rowCount;
+    private boolean _isSchemaWritten;
+    //endregion
+
+    //region Constructor
+    public ArrowEncoder(ResultSetMetaData metaData) throws SQLException {
+        var columnCount = metaData.getColumnCount();
+
+        _codecs = new ColumnCodec[columnCount];
+        _names = new String[columnCount];
+        _nullable = new boolean[columnCount];
+        _precision = new int[columnCount];
+        _scale = new int[columnCount];
+        _decimalLimits = new BigInteger[columnCount];
+        _validity = new ByteBuf[columnCount];
+        _offsets = new ByteBuf[columnCount];
+        _values = new ByteBuf[columnCount];
+        _nullCounts = new int[columnCount];
+
+        for (int i = 0; i < columnCount; i++) {
+            var index = i + 1;
+            var codec = ColumnCodec.fromClassName(metaData.getColumnClassName(index));
+
+            _names[i] = String.valueOf(metaData.getColumnLabel(index));
+            _nullable[i] = metaData.isNullable(index) != ResultSetMetaData.columnNoNulls;
+
+            if (codec == ColumnCodec.BIG_DECIMAL) {
+                _precision[i] = metaData.getPrecision(index);
+                _scale[i] = metaData.getScale(index);
+
+                // Without a usable fixed precision/scale the value is sent as its plain string form
+                if (_precision[i] <= 0 || _precision[i] > MAX_DECIMAL_PRECISION || _scale[i] < 0 || _scale[i] > _precision[i]) {
+                    codec = ColumnCodec.OBJECT;
+                } else {
+                    _decimalLimits[i] = BigInteger.TEN.pow(_precision[i]);
+                }
+            }
+
+            _codecs[i] = codec;
+        }
+    }
+    //endregion
+
+    //region ChunkEncoder
+    @Override
+    public void encode(ResultSet resultSet) throws SQLException {
+        if (_values.length > 0 && _values[0] == null) {
+            allocate();
+        }
+
+        var byteIndex = _rowCount >>> 3;
+        var bitMask = 1 << (_rowCount & 7);
+
+        for (int i = 0; i < _codecs.length; i++) {
+            var validity = _validity[i];
+
+            if (bitMask == 1) {
+                validity.writeByte(0);
+
+                if (_codecs[i] == ColumnCodec.BOOLEAN) {
+                    _values[i].writeByte(0);
+                }
+            }
+
+            if (encodeValue(resultSet, i, byteIndex, bitMask)) {
+                validity.setByte(byteIndex, validity.getByte(byteIndex) | bitMask);
+            } else {
+                _nullCounts[i]++;
+            }
+
+            if (_offsets[i] != null) {
+                _offsets[i].writeIntLE(_values[i].writerIndex());
+            }
+        }
+
+        _rowCount++;
+    }
+
+    @Override
+    public int getSize() {
+        var size = 0;
+
+        for (int i = 0; i < _codecs.length; i++) {
+            if (_values[i] == null)
+                break;
+
+            size += _validity[i].readableBytes() + _values[i].readableBytes();
+
+            if (_offsets[i] != null) {
+                size += _offsets[i].readableBytes();
+            }
+        }
+
+        return size;
+    }
+
+    @Override
+    public ByteBuf finish(boolean isCompleted) {
+        var buffer = ChunkBufferPool.acquire(getSize() + 1024);
+
+        try {
+            if (!_isSchemaWritten) {
+                writeMessage(buffer, buildSchema());
+                _isSchemaWritten = true;
+            }
+
+            if (_rowCount > 0) {
+                writeRecordBatch(buffer);
+            }
+
+            if (isCompleted) {
+                // End-of-stream marker
+                buffer.writeIntLE(CONTINUATION);
+                buffer.writeIntLE(0);
+            }
+        } catch (Throwable e) {
+            ChunkBufferPool.recycle(buffer);
+            throw e;
+        }
+
+        reset();
+        return buffer;
+    }
+
+    @Override
+    public void release() {
+        for (int i = 0; i < _codecs.length; i++) {
+            if (_values[i] == null)
+                continue;
+
+            _validity[i].release();
+            _values[i].release();
+            _validity[i] = null;
+            _values[i] = null;
+
+            if (_offsets[i] != null) {
+                _offsets[i].release();
+                _offsets[i] = null;
+            }
+        }
+
+        _rowCount = 0;
+    }
+    //endregion
+
+    //region Private Methods
+    private boolean isVariableWidth(int column) {
+        var codec = _codecs[column];
+        return codec == ColumnCodec.TEXT || codec == ColumnCodec.BINARY || codec == ColumnCodec.OBJECT;
+    }
+
+    private void allocate() {
+        for (int i = 0; i < _codecs.length; i++) {
+            _validity[i] = ByteBufAllocator.DEFAULT.buffer();
+            _values[i] = ByteBufAllocator.DEFAULT.buffer();
+
+            if (isVariableWidth(i)) {
+                _offsets[i] = ByteBufAllocator.DEFAULT.buffer();
+                _offsets[i].writeIntLE(0);
+            }
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < _codecs.length; i++) {
+            _nullCounts[i] = 0;
+
+            if (_values[i] == null)
+                continue;
+
+            _validity[i].clear();
+            _values[i].clear();
+
+            if (_offsets[i] != null) {
+                _offsets[i].clear();
+                _offsets[i].writeIntLE(0);
+            }
+        }
+
+        _rowCount = 0;
+    }
+
+    // Writes the value of one column into its vector, returns false when the value is null
+    private boolean encodeValue(ResultSet resultSet, int column, int byteIndex, int bitMask) throws SQLException {
+        var index = column + 1;
+        var values = _values[column];
+
+        switch (_codecs[column]) {
+            case TEXT: {
+                var value = resultSet.getString(index);
+
+                if (value == null)
+                    return false;
+
+                values.writeCharSequence(value, StandardCharsets.UTF_8);
+                return true;
+            }
+
+            case BOOLEAN: {
+                // Arrow booleans are bit-packed like the validity bitmap
+                var value = resultSet.getBoolean(index);
+                var isNull = resultSet.wasNull();
+
+                if (!isNull && value) {
+                    values.setByte(byteIndex, values.getByte(byteIndex) | bitMask);
+                }
+
+                return !isNull;
+            }
+
+            case BIG_DECIMAL: {
+                var value = resultSet.getBigDecimal(index);
+
+                if (value == null) {
+                    values.writeZero(16);
+                    return false;
+                }
+
+                var unscaled = value.setScale(_scale[column], RoundingMode.HALF_UP).unscaledValue();
+
+                // The schema is already out, so a value wider than the declared precision can't switch the column to text
+                if (unscaled.abs().compareTo(_decimalLimits[column]) >= 0)
+                    throw new SQLException("Value " + value.toPlainString() + " of column '" + _names[column]
+                            + "' exceeds DECIMAL(" + _precision[column] + ", " + _scale[column] + ")");
+
+                writeDecimal128(values, unscaled.toByteArray());
+                return true;
+            }
+
+            case DATE: {
+                // Date(DAY): days since epoch
+                var value = resultSet.getDate(index);
+                values.writeIntLE(value == null ? 0 : (int) value.toLocalDate().toEpochDay());
+                return value != null;
+            }
+
+            case TIME: {
+                // Time(MILLISECOND, 32): milliseconds since midnight
+                var value = resultSet.getTime(index);
+                values.writeIntLE(value == null ? 0 : (int) (value.toLocalTime().toNanoOfDay() / 1_000_000));
+                return value != null;
+            }
+
+            case OBJECT: {
+                var value = resultSet.getObject(index);
+
+                if (value == null)
+                    return false;
+
+                values.writeCharSequence(toText(value), StandardCharsets.UTF_8);
+                return true;
+            }
+
+            default:
+                return ColumnVectors.writeValue(resultSet, index, _codecs[column], values);
+        }
+    }
+
+    private static String toText(Object value) throws SQLException {
+        if (value instanceof byte[])
+            return Utils.bytesToHex((byte[]) value);
+
+        if (value instanceof BigDecimal)
+            return ((BigDecimal) value).toPlainString();
+
+        if (value instanceof Clob) {
+            var clob = (Clob) value;
+            return clob.getSubString(1, checkLobLength(clob.length()));
+        }
+
+        if (value instanceof Blob) {
+            var blob = (Blob) value;
+            return Utils.bytesToHex(blob.getBytes(1, checkLobLength(blob.length())));
+        }
+
+        return value.toString();
+    }
+
+    // Arrow has no LOB handles, a LOB column is sent whole and must fit a chunk
+    private static int checkLobLength(long length) throws SQLException {
+        if (length > MAX_LOB_LENGTH)
+            throw new SQLException("LOB of " + length + " is too large for an Arrow chunk, read it with LOB handles in the row or columnar format");
+
+        return (int) length;
+    }
+
+    private static void writeDecimal128(ByteBuf buffer, byte[] bigEndian) {
+        // 128-bit little-endian two's complement, precision 38 always fits
+        if (bigEndian.length > 16)
+            throw new IllegalArgumentException("Decimal does not fit 128 bits");
+
+        var sign = bigEndian.length > 0 && bigEndian[0] < 0 ? (byte) 0xFF : 0;
+
+        for (int i = bigEndian.length - 1; i >= 0; i--) {
+            buffer.writeByte(bigEndian[i]);
+        }
+
+        for (int i = bigEndian.length; i < 16; i++) {
+            buffer.writeByte(sign);
+        }
+    }
+
+    private FlatBufferBuilder buildSchema() {
+        var builder = new FlatBufferBuilder(1024);
+        var fields = new int[_codecs.length];
+
+        for (int i = 0; i < _codecs.length; i++) {
+            var nameOffset = builder.createString(_names[i]);
+            var typeType = getTypeType(i);
+            var typeOffset = createType(builder, i);
+            var childrenOffset = Field.createChildrenVector(builder, new int[0]);
+
+            Field.startField(builder);
+            Field.addName(builder, nameOffset);
+            Field.addNullable(builder, _nullable[i]);
+            Field.addTypeType(builder, typeType);
+            Field.addType(builder, typeOffset);
+            Field.addChildren(builder, childrenOffset);
+            fields[i] = Field.endField(builder);
+        }
+
+        var fieldsOffset = Schema.createFieldsVector(builder, fields);
+
+        Schema.startSchema(builder);
+        Schema.addEndianness(builder, Endianness.Little);
+        Schema.addFields(builder, fieldsOffset);
+        var schemaOffset = Schema.endSchema(builder);
+
+        finishMessage(builder, MessageHeader.Schema, schemaOffset, 0);
+        return builder;
+    }
+
+    private byte getTypeType(int column) {
+        switch (_codecs[column]) {
+            case BYTE:
+            case SHORT:
+            case INTEGER:
+            case LONG:
+                return Type.Int;
+
+            case FLOAT:
+            case DOUBLE:
+                return Type.FloatingPoint;
+
+            case BOOLEAN:
+                return Type.Bool;
+
+            case BIG_DECIMAL:
+                return Type.Decimal;
+
+            case DATE:
+                return Type.Date;
+
+            case TIME:
+                return Type.Time;
+
+            case DATE_TIME:
+                return Type.Timestamp;
+
+            case BINARY:
+                return Type.Binary;
+
+            default:
+                return Type.Utf8;
+        }
+    }
+
+    private int createType(FlatBufferBuilder builder, int column) {
+        switch (_codecs[column]) {
+            case BYTE:
+                return Int.createInt(builder, 8, true);
+
+            case SHORT:
+                return Int.createInt(builder, 16, true);
+
+            case INTEGER:
+                return Int.createInt(builder, 32, true);
+
+            case LONG:
+                return Int.createInt(builder, 64, true);
+
+            case FLOAT:
+                return FloatingPoint.createFloatingPoint(builder, Precision.SINGLE);
+
+            case DOUBLE:
+                return FloatingPoint.createFloatingPoint(builder, Precision.DOUBLE);
+
+            case BOOLEAN:
+                Bool.startBool(builder);
+                return Bool.endBool(builder);
+
+            case BIG_DECIMAL:
+                return Decimal.createDecimal(builder, _precision[column], _scale[column], 128);
+
+            case DATE:
+                return Date.createDate(builder, DateUnit.DAY);
+
+            case TIME:
+                return Time.createTime(builder, TimeUnit.MILLISECOND, 32);
+
+            case DATE_TIME:
+                return Timestamp.createTimestamp(builder, TimeUnit.MILLISECOND, builder.createString("UTC"));
+
+            case BINARY:
+                Binary.startBinary(builder);
+                return Binary.endBinary(builder);
+
+            default:
+                Utf8.startUtf8(builder);
+                return Utf8.endUtf8(builder);
+        }
+    }
+
+    private void writeRecordBatch(ByteBuf buffer) {
+        var bufferCount = 0;
+
+        for (int i = 0; i < _codecs.length; i++) {
+            bufferCount += _offsets[i] != null ? 3 : 2;
+        }
+
+        var bufferOffsets = new long[bufferCount];
+        var bufferLengths = new long[bufferCount];
+        var bodyLength = 0L;
+        var n = 0;
+
+        for (int i = 0; i < _codecs.length; i++) {
+            for (var vector : getVectors(i)) {
+                bufferOffsets[n] = bodyLength;
+                bufferLengths[n] = vector.readableBytes();
+                bodyLength += align(vector.readableBytes());
+                n++;
+            }
+        }
+
+        var builder = new FlatBufferBuilder(256 + bufferCount * 16);
+
+        RecordBatch.startNodesVector(builder, _codecs.length);
+        for (int i = _codecs.length - 1; i >= 0; i--) {
+            FieldNode.createFieldNode(builder, _rowCount, _nullCounts[i]);
+        }
+        var nodesOffset = builder.endVector();
+
+        RecordBatch.startBuffersVector(builder, bufferCount);
+        for (int i = bufferCount - 1; i >= 0; i--) {
+            Buffer.createBuffer(builder, bufferOffsets[i], bufferLengths[i]);
+        }
+        var buffersOffset = builder.endVector();
+
+        RecordBatch.startRecordBatch(builder);
+        RecordBatch.addLength(builder, _rowCount);
+        RecordBatch.addNodes(builder, nodesOffset);
+        RecordBatch.addBuffers(builder, buffersOffset);
+        var recordBatchOffset = RecordBatch.endRecordBatch(builder);
+
+        finishMessage(builder, MessageHeader.RecordBatch, recordBatchOffset, bodyLength);
+        writeMessage(buffer, builder);
+
+        for (int i = 0; i < _codecs.length; i++) {
+            for (var vector : getVectors(i)) {
+                var length = vector.readableBytes();
+                buffer.writeBytes(vector, vector.readerIndex(), length);
+                buffer.writeZero((int) (align(length) - length));
+            }
+        }
+    }
+
+    private ByteBuf[] getVectors(int column) {
+        if (_offsets[column] != null)
+            return new ByteBuf[] { _validity[column], _offsets[column], _values[column] };
+
+        return new ByteBuf[] { _validity[column], _values[column] };
+    }
+
+    private static void finishMessage(FlatBufferBuilder builder, byte headerType, int headerOffset, long bodyLength) {
+        Message.startMessage(builder);
+        Message.addVersion(builder, MetadataVersion.V5);
+        Message.addHeaderType(builder, headerType);
+        Message.addHeader(builder, headerOffset);
+        Message.addBodyLength(builder, bodyLength);
+        builder.finish(Message.endMessage(builder));
+    }
+
+    private static void writeMessage(ByteBuf buffer, FlatBufferBuilder builder) {
+        // | CONTINUATION(4) | METADATA_LENGTH(4) | METADATA(N) | PADDING |, followed by the message body
+        var metadata = builder.sizedByteArray();
+        var paddedLength = (int) align(8 + metadata.length) - 8;
+
+        buffer.writeIntLE(CONTINUATION);
+        buffer.writeIntLE(paddedLength);
+        buffer.writeBytes(metadata);
+        buffer.writeZero(paddedLength - metadata.length);
+    }
+
+    private static long align(long length) {
+        return (length + 7) & ~7L;
+    }
+    //endregion
+}
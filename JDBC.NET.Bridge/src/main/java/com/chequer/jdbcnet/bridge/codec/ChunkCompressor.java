@@ -0,0 +1,126 @@
+package com.chequer.jdbcnet.bridge.codec;
+
+import com.chequer.jdbcnet.bridge.manager.ChunkBufferPool;
+import com.github.luben.zstd.Zstd;
+import io.grpc.netty.shaded.io.netty.buffer.ByteBuf;
+import io.grpc.netty.shaded.io.netty.buffer.ByteBufAllocator;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import proto.reader.Reader;
+
+/**
+ * Compresses the chunks of one result set. When recent chunks do not shrink enough to be worth the CPU,
+ * compression is skipped for a number of chunks before it is probed again.
+ */
+public class ChunkCompressor {
+    //region Constants
+    private static final int MIN_SIZE = 4096;
+    private static final double MAX_RATIO = 0.9;
+    private static final int BACKOFF_CHUNKS = 8;
+    private static final int ZSTD_LEVEL = 1;
+    //endregion
+
+    //region Fields
+    private static final LZ4Compressor _lz4Compressor = LZ4Factory.fastestInstance().fastCompressor();
+
+    private final Reader.ChunkCompression _compression;
+    private double _ratio;
+    private int _skippedChunks;
+    //endregion
+
+    //region Constructor
+    public ChunkCompressor(Reader.ChunkCompression compression) {
+        _compression = compression;
+    }
+    //endregion
+
+    //region Public Methods
+    public Reader.ChunkCompression getCompression() {
+        return _compression;
+    }
+
+    // Returns the compressed chunk, or null when the chunk should be sent as is
+    public ByteBuf compress(ByteBuf source) {
+        var length = source.readableBytes();
+
+        if (length < MIN_SIZE)
+            return null;
+
+        if (_skippedChunks > 0) {
+            _skippedChunks--;
+            return null;
+        }
+
+        var compressed = _compression == Reader.ChunkCompression.ZSTD ? compressZstd(source) : compressLz4(source);
+        var ratio = (double) compressed.readableBytes() / length;
+
+        // Moving average over recent chunks
+        _ratio = _ratio == 0 ? ratio : _ratio * 0.75 + ratio * 0.25;
+
+        if (_ratio > MAX_RATIO) {
+            _skippedChunks = BACKOFF_CHUNKS;
+            _ratio = 0;
+        }
+
+        if (compressed.readableBytes() >= length) {
+            ChunkBufferPool.recycle(compressed);
+            return null;
+        }
+
+        return compressed;
+    }
+    //endregion
+
+    //region Private Methods
+    private static ByteBuf compressLz4(ByteBuf source) {
+        var length = source.readableBytes();
+        var target = ChunkBufferPool.acquire(_lz4Compressor.maxCompressedLength(length));
+
+        try {
+            var written = _lz4Compressor.compress(
+                    source.nioBuffer(), 0, length,
+                    target.nioBuffer(0, target.capacity()), 0, target.capacity());
+
+            target.writerIndex(written);
+            return target;
+        } catch (Throwable e) {
+            ChunkBufferPool.recycle(target);
+            throw e;
+        }
+    }
+
+    private static ByteBuf compressZstd(ByteBuf source) {
+        var length = source.readableBytes();
+        var bound = (int) Zstd.compressBound(length);
+
+        if (!source.isDirect()) {
+            var compressed = Zstd.compress(readBytes(source), ZSTD_LEVEL);
+            return ByteBufAllocator.DEFAULT.ioBuffer(compressed.length).writeBytes(compressed);
+        }
+
+        var target = ChunkBufferPool.acquire(bound);
+
+        try {
+            var written = Zstd.compressDirectByteBuffer(
+                    target.nioBuffer(0, bound), 0, bound,
+                    source.nioBuffer(), 0, length,
+                    ZSTD_LEVEL);
+
+            if (Zstd.isError(written))
+                throw new IllegalStateException(Zstd.getErrorName(written));
+
+            target.writerIndex((int) written);
+            return target;
+        } catch (Throwable e) {
+            ChunkBufferPool.recycle(target);
+            throw e;
+        }
+    }
+
+    private static byte[] readBytes(ByteBuf source) {
+        var bytes = new byte[source.readableBytes()];
+        source.getBytes(source.readerIndex(), bytes);
+        return bytes;
+    }
+    //endregion
+}
@@ -0,0 +1,18 @@
+package com.chequer.jdbcnet.bridge.codec;
+
+import io.grpc.netty.shaded.io.netty.buffer.ByteBuf;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public interface ChunkEncoder {
+    void encode(ResultSet resultSet) throws SQLException, IOException;
+
+    int getSize();
+
+    // Hands the encoded chunk over to the caller and resets the encoder for the next chunk
+    ByteBuf finish(boolean isCompleted);
+
+    void release();
+}
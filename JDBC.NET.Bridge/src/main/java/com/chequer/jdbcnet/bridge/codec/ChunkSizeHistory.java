@@ -0,0 +1,40 @@
+package com.chequer.jdbcnet.bridge.codec;
+
+/**
+ * Sizes of the last few chunks of one result set, used to pick the initial capacity of the next chunk buffer
+ * so it does not have to grow while rows are encoded.
+ */
+class ChunkSizeHistory {
+    //region Constants
+    private static final int LENGTH = 8;
+    //endregion
+
+    //region Fields
+    private final int[] _sizes = new int[LENGTH];
+    // Next slot to overwrite, and the number of slots filled so far
+    private int _index;
+    private int _count;
+    //endregion
+
+    //region Public Methods
+    public void add(int size) {
+        _sizes[_index] = size;
+        _index = (_index + 1) % LENGTH;
+
+        if (_count < LENGTH) {
+            _count++;
+        }
+    }
+
+    // Largest recent chunk plus an eighth of headroom for the row that crosses the chunk size
+    public int predict() {
+        var max = 0;
+
+        for (int i = 0; i < _count; i++) {
+            max = Math.max(max, _sizes[i]);
+        }
+
+        return max + (max >>> 3);
+    }
+    //endregion
+}
@@ -0,0 +1,116 @@
+package com.chequer.jdbcnet.bridge.codec;
+
+import proto.Common;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+
+enum ColumnCodec {
+    TEXT(Common.JdbcItemType.TEXT, -1),
+    BYTE(Common.JdbcItemType.BYTE, 1),
+    SHORT(Common.JdbcItemType.SHORT, 2),
+    INTEGER(Common.JdbcItemType.INTEGER, 4),
+    LONG(Common.JdbcItemType.LONG, 8),
+    FLOAT(Common.JdbcItemType.FLOAT, 4),
+    DOUBLE(Common.JdbcItemType.DOUBLE, 8),
+    BOOLEAN(Common.JdbcItemType.BOOLEAN, 1),
+    BIG_DECIMAL(Common.JdbcItemType.BIG_DECIMAL, -1),
+    DATE(Common.JdbcItemType.DATE, 8),
+    TIME(Common.JdbcItemType.TIME, 8),
+    DATE_TIME(Common.JdbcItemType.DATE_TIME, 8),
+    BINARY(Common.JdbcItemType.BINARY, -1),
+    OBJECT(Common.JdbcItemType.UNKNOWN, -1);
+
+    //region Fields
+    private final Common.JdbcItemType _itemType;
+    private final int _width;
+    //endregion
+
+    //region Constructor
+    ColumnCodec(Common.JdbcItemType itemType, int width) {
+        _itemType = itemType;
+        _width = width;
+    }
+    //endregion
+
+    //region Public Methods
+    public Common.JdbcItemType getItemType() {
+        return _itemType;
+    }
+
+    public boolean isFixedWidth() {
+        return _width > 0;
+    }
+
+    public int getWidth() {
+        return _width;
+    }
+
+    // LOB columns are read with getObject whatever class the driver reports (MySQL TEXT is a String),
+    // so ResultSetEx can hand out a LOB handle for them
+    public static ColumnCodec fromMetaData(ResultSetMetaData metaData, int index) throws SQLException {
+        switch (metaData.getColumnType(index)) {
+            case Types.BLOB:
+            case Types.CLOB:
+            case Types.NCLOB:
+            case Types.LONGVARBINARY:
+            case Types.LONGVARCHAR:
+            case Types.LONGNVARCHAR:
+                return OBJECT;
+
+            default:
+                return fromClassName(metaData.getColumnClassName(index));
+        }
+    }
+
+    public static ColumnCodec fromClassName(String className) {
+        if (className == null)
+            return OBJECT;
+
+        switch (className) {
+            case "java.lang.String":
+                return TEXT;
+
+            case "java.lang.Byte":
+                return BYTE;
+
+            case "java.lang.Short":
+                return SHORT;
+
+            case "java.lang.Integer":
+                return INTEGER;
+
+            case "java.lang.Long":
+                return LONG;
+
+            case "java.lang.Float":
+                return FLOAT;
+
+            case "java.lang.Double":
+                return DOUBLE;
+
+            case "java.lang.Boolean":
+                return BOOLEAN;
+
+            case "java.math.BigDecimal":
+                return BIG_DECIMAL;
+
+            case "java.sql.Date":
+                return DATE;
+
+            case "java.sql.Time":
+                return TIME;
+
+            case "java.sql.Timestamp":
+                return DATE_TIME;
+
+            case "[B":
+                return BINARY;
+
+            default:
+                return OBJECT;
+        }
+    }
+    //endregion
+}
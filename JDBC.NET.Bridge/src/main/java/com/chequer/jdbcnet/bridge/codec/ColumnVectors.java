@@ -0,0 +1,80 @@
+package com.chequer.jdbcnet.bridge.codec;
+
+import io.grpc.netty.shaded.io.netty.buffer.ByteBuf;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Value vectors the columnar and Arrow layouts have in common: little-endian fixed-width numbers with zero-filled
+ * null slots, epoch millisecond timestamps and raw binary data. Each encoder handles the other codecs itself.
+ */
+class ColumnVectors {
+    //region Public Methods
+    // Writes the value of one column into its vector, returns false when the value is null
+    public static boolean writeValue(ResultSet resultSet, int index, ColumnCodec codec, ByteBuf values) throws SQLException {
+        switch (codec) {
+            case BYTE: {
+                var value = resultSet.getByte(index);
+                var isNull = resultSet.wasNull();
+                values.writeByte(isNull ? 0 : value);
+                return !isNull;
+            }
+
+            case SHORT: {
+                var value = resultSet.getShort(index);
+                var isNull = resultSet.wasNull();
+                values.writeShortLE(isNull ? 0 : value);
+                return !isNull;
+            }
+
+            case INTEGER: {
+                var value = resultSet.getInt(index);
+                var isNull = resultSet.wasNull();
+                values.writeIntLE(isNull ? 0 : value);
+                return !isNull;
+            }
+
+            case LONG: {
+                var value = resultSet.getLong(index);
+                var isNull = resultSet.wasNull();
+                values.writeLongLE(isNull ? 0 : value);
+                return !isNull;
+            }
+
+            case FLOAT: {
+                var value = resultSet.getFloat(index);
+                var isNull = resultSet.wasNull();
+                values.writeFloatLE(isNull ? 0 : value);
+                return !isNull;
+            }
+
+            case DOUBLE: {
+                var value = resultSet.getDouble(index);
+                var isNull = resultSet.wasNull();
+                values.writeDoubleLE(isNull ? 0 : value);
+                return !isNull;
+            }
+
+            case DATE_TIME: {
+                var value = resultSet.getTimestamp(index);
+                values.writeLongLE(value == null ? 0 : value.getTime());
+                return value != null;
+            }
+
+            case BINARY: {
+                var value = resultSet.getBytes(index);
+
+                if (value == null)
+                    return false;
+
+                values.writeBytes(value);
+                return true;
+            }
+
+            default:
+                throw new IllegalArgumentException("No common vector for " + codec);
+        }
+    }
+    //endregion
+}
@@ -0,0 +1,300 @@
+package com.chequer.jdbcnet.bridge.codec;
+
+import com.chequer.jdbcnet.bridge.manager.ChunkBufferPool;
+import io.grpc.netty.shaded.io.netty.buffer.ByteBuf;
+import io.grpc.netty.shaded.io.netty.buffer.ByteBufAllocator;
+import proto.reader.Reader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * Encodes a chunk column by column. Column buffers are kept across chunks and only cleared on {@link #finish(boolean)}.
+ * <pre>
+ * | ROW_COUNT(4) | COLUMN_COUNT(4) | COLUMN(N)... |
+ *
+ * COLUMN      | TYPE(1) | ENCODING(1) | VALIDITY(⌈ROW_COUNT / 8⌉) | BODY |
+ * fixed-width | VALUES(ROW_COUNT * WIDTH) |
+ * variable    | OFFSETS((ROW_COUNT + 1) * 4) | DATA(OFFSETS[ROW_COUNT]) |
+ * dictionary  | DICT_COUNT(4) | DICT_OFFSETS((DICT_COUNT + 1) * 4) | DICT_DATA(N) | INDEX_WIDTH(1) | INDICES(ROW_COUNT * INDEX_WIDTH) |
+ * </pre>
+ * All numbers are little-endian. A set validity bit (LSB first) marks a non-null value, null slots of
+ * fixed-width vectors are zero-filled and null entries of variable-width vectors are empty.
+ * BIG_DECIMAL entries are | SCALE(4) | UNSCALED(N) |, VARIANT entries are row format values.
+ * TEXT columns are DICTIONARY encoded when their values repeat within the chunk.
+ */
+public class ColumnarEncoder implements ChunkEncoder {
+    //region Fields
+    private final ColumnCodec[] _codecs;
+    private final ByteBuf[] _validity;
+    private final ByteBuf[] _offsets;
+    private final ByteBuf[] _values;
+    private final TextDictionary[] _dictionaries;
+    private int _rowCount;
+    //endregion
+
+    //region Constructor
+    public ColumnarEncoder(ResultSetMetaData metaData) throws SQLException {
+        var columnCount = metaData.getColumnCount();
+
+        _codecs = new ColumnCodec[columnCount];
+        _validity = new ByteBuf[columnCount];
+        _offsets = new ByteBuf[columnCount];
+        _values = new ByteBuf[columnCount];
+        _dictionaries = new TextDictionary[columnCount];
+
+        for (int i = 0; i < columnCount; i++) {
+            _codecs[i] = ColumnCodec.fromMetaData(metaData, i + 1);
+
+            if (_codecs[i] == ColumnCodec.TEXT) {
+                _dictionaries[i] = new TextDictionary();
+            }
+        }
+    }
+    //endregion
+
+    //region ChunkEncoder
+    @Override
+    public void encode(ResultSet resultSet) throws SQLException, IOException {
+        if (_values.length > 0 && _values[0] == null) {
+            allocate();
+        }
+
+        var byteIndex = _rowCount >>> 3;
+        var bitMask = 1 << (_rowCount & 7);
+
+        for (int i = 0; i < _codecs.length; i++) {
+            var validity = _validity[i];
+
+            if (bitMask == 1) {
+                validity.writeByte(0);
+            }
+
+            if (encodeValue(resultSet, i)) {
+                validity.setByte(byteIndex, validity.getByte(byteIndex) | bitMask);
+            }
+
+            if (_offsets[i] != null) {
+                _offsets[i].writeIntLE(_values[i].writerIndex());
+            }
+        }
+
+        _rowCount++;
+    }
+
+    @Override
+    public int getSize() {
+        var size = 8;
+
+        for (int i = 0; i < _codecs.length; i++) {
+            if (_values[i] == null)
+                break;
+
+            size += 2 + _validity[i].readableBytes();
+
+            // The plain offsets of a dictionary column are only placeholders until it is materialized
+            if (_dictionaries[i] != null && _dictionaries[i].isActive()) {
+                size += _dictionaries[i].getSize();
+                continue;
+            }
+
+            size += _values[i].readableBytes();
+
+            if (_offsets[i] != null) {
+                size += _offsets[i].readableBytes();
+            }
+        }
+
+        return size;
+    }
+
+    @Override
+    public ByteBuf finish(boolean isCompleted) {
+        var isAllocated = _values.length > 0 && _values[0] != null;
+
+        for (int i = 0; i < _codecs.length; i++) {
+            var dictionary = _dictionaries[i];
+
+            if (isAllocated && dictionary != null && dictionary.isActive() && !dictionary.isWorthwhile(_rowCount)) {
+                dictionary.materialize(_validity[i], _rowCount, _offsets[i], _values[i]);
+            }
+        }
+
+        var buffer = ChunkBufferPool.acquire(getSize());
+
+        buffer.writeIntLE(_rowCount);
+        buffer.writeIntLE(_codecs.length);
+
+        for (int i = 0; i < _codecs.length; i++) {
+            var isDictionary = isAllocated && _dictionaries[i] != null && _dictionaries[i].isActive();
+
+            buffer.writeByte(_codecs[i].getItemType().getNumber());
+            buffer.writeByte(isDictionary
+                    ? Reader.ColumnEncoding.DICTIONARY_VALUE
+                    : _codecs[i] == ColumnCodec.OBJECT ? Reader.ColumnEncoding.VARIANT_VALUE : Reader.ColumnEncoding.PLAIN_VALUE);
+
+            if (!isAllocated) {
+                // Empty chunk: no validity bytes, a variable-width column still carries its leading offset
+                if (!_codecs[i].isFixedWidth()) {
+                    buffer.writeIntLE(0);
+                }
+
+                continue;
+            }
+
+            buffer.writeBytes(_validity[i]);
+
+            if (isDictionary) {
+                _dictionaries[i].write(buffer, _rowCount);
+                continue;
+            }
+
+            if (_offsets[i] != null) {
+                buffer.writeBytes(_offsets[i]);
+            }
+
+            buffer.writeBytes(_values[i]);
+        }
+
+        reset();
+        return buffer;
+    }
+
+    @Override
+    public void release() {
+        for (int i = 0; i < _codecs.length; i++) {
+            if (_dictionaries[i] != null) {
+                _dictionaries[i].release();
+            }
+
+            if (_values[i] == null)
+                continue;
+
+            _validity[i].release();
+            _values[i].release();
+            _validity[i] = null;
+            _values[i] = null;
+
+            if (_offsets[i] != null) {
+                _offsets[i].release();
+                _offsets[i] = null;
+            }
+        }
+
+        _rowCount = 0;
+    }
+    //endregion
+
+    //region Private Methods
+    private void allocate() {
+        for (int i = 0; i < _codecs.length; i++) {
+            _validity[i] = ByteBufAllocator.DEFAULT.buffer();
+            _values[i] = ByteBufAllocator.DEFAULT.buffer();
+
+            if (!_codecs[i].isFixedWidth()) {
+                _offsets[i] = ByteBufAllocator.DEFAULT.buffer();
+                _offsets[i].writeIntLE(0);
+            }
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < _codecs.length; i++) {
+            if (_dictionaries[i] != null) {
+                _dictionaries[i].reset();
+            }
+
+            if (_values[i] == null)
+                continue;
+
+            _validity[i].clear();
+            _values[i].clear();
+
+            if (_offsets[i] != null) {
+                _offsets[i].clear();
+                _offsets[i].writeIntLE(0);
+            }
+        }
+
+        _rowCount = 0;
+    }
+
+    // Writes the value of one column into its vector, returns false when the value is null
+    private boolean encodeValue(ResultSet resultSet, int column) throws SQLException, IOException {
+        var index = column + 1;
+        var values = _values[column];
+
+        switch (_codecs[column]) {
+            case TEXT: {
+                var value = resultSet.getString(index);
+                var dictionary = _dictionaries[column];
+
+                if (value == null) {
+                    if (dictionary.isActive()) {
+                        dictionary.addNull();
+                    }
+
+                    return false;
+                }
+
+                if (dictionary.isActive()) {
+                    if (dictionary.add(value))
+                        return true;
+
+                    // Too many distinct values, continue the chunk as a plain vector
+                    dictionary.materialize(_validity[column], _rowCount, _offsets[column], values);
+                }
+
+                values.writeCharSequence(value, StandardCharsets.UTF_8);
+                return true;
+            }
+
+            case BOOLEAN: {
+                var value = resultSet.getBoolean(index);
+                var isNull = resultSet.wasNull();
+                values.writeBoolean(!isNull && value);
+                return !isNull;
+            }
+
+            case BIG_DECIMAL: {
+                var value = resultSet.getBigDecimal(index);
+
+                if (value == null)
+                    return false;
+
+                values.writeIntLE(value.scale());
+                values.writeBytes(value.unscaledValue().toByteArray());
+                return true;
+            }
+
+            case DATE: {
+                var value = resultSet.getDate(index);
+                values.writeLongLE(value == null ? 0 : value.getTime());
+                return value != null;
+            }
+
+            case TIME: {
+                var value = resultSet.getTime(index);
+                values.writeLongLE(value == null ? 0 : value.getTime());
+                return value != null;
+            }
+
+            case OBJECT: {
+                var value = resultSet.getObject(index);
+
+                if (value == null)
+                    return false;
+
+                ValueEncoder.encodeValue(values, value);
+                return true;
+            }
+
+            default:
+                return ColumnVectors.writeValue(resultSet, index, _codecs[column], values);
+        }
+    }
+    //endregion
+}
@@ -0,0 +1,162 @@
+package com.chequer.jdbcnet.bridge.codec;
+
+import proto.Common;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.sql.*;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Binds typed {@link Common.JdbcValue} parameters without going through strings.
+ * DATE and TIME values are epoch milliseconds, as in the row format.
+ */
+public class ParameterBinder {
+    public static void bindParameters(PreparedStatement statement, List<Common.JdbcValue> parameters) throws SQLException {
+        for (int i = 0; i < parameters.size(); i++) {
+            bindParameter(statement, i + 1, parameters.get(i));
+        }
+    }
+
+    public static void bindParameter(PreparedStatement statement, int index, Common.JdbcValue value) throws SQLException {
+        switch (value.getValueCase()) {
+            case NULLTYPE:
+                statement.setNull(index, value.getNullType());
+                break;
+
+            case BYTEVALUE:
+                statement.setByte(index, (byte) value.getByteValue());
+                break;
+
+            case SHORTVALUE:
+                statement.setShort(index, (short) value.getShortValue());
+                break;
+
+            case INTVALUE:
+                statement.setInt(index, value.getIntValue());
+                break;
+
+            case LONGVALUE:
+                statement.setLong(index, value.getLongValue());
+                break;
+
+            case FLOATVALUE:
+                statement.setFloat(index, value.getFloatValue());
+                break;
+
+            case DOUBLEVALUE:
+                statement.setDouble(index, value.getDoubleValue());
+                break;
+
+            case STRINGVALUE:
+                statement.setString(index, value.getStringValue());
+                break;
+
+            case BOOLEANVALUE:
+                statement.setBoolean(index, value.getBooleanValue());
+                break;
+
+            case BYTESVALUE:
+                statement.setBytes(index, value.getBytesValue().toByteArray());
+                break;
+
+            case DECIMALVALUE: {
+                var decimal = value.getDecimalValue();
+                statement.setBigDecimal(index, new BigDecimal(new BigInteger(decimal.getUnscaledValue().toByteArray()), decimal.getScale()));
+                break;
+            }
+
+            case DATEVALUE:
+                statement.setDate(index, new Date(value.getDateValue()));
+                break;
+
+            case TIMEVALUE:
+                statement.setTime(index, new Time(value.getTimeValue()));
+                break;
+
+            case TIMESTAMPVALUE: {
+                var timestamp = new Timestamp(value.getTimestampValue().getSeconds() * 1000);
+                timestamp.setNanos(value.getTimestampValue().getNanos());
+
+                statement.setTimestamp(index, timestamp);
+                break;
+            }
+
+            case UUIDVALUE: {
+                var bytes = value.getUuidValue().asReadOnlyByteBuffer();
+
+                if (bytes.remaining() != 16)
+                    throw new SQLException("UUID parameter " + index + " must be 16 bytes");
+
+                bindUuid(statement, index, new UUID(bytes.getLong(), bytes.getLong()));
+                break;
+            }
+
+            default:
+                throw new SQLException("Parameter " + index + " has no value");
+        }
+    }
+
+    // Some drivers (MySQL) accept any object and serialize it, so a failing setObject can't tell whether UUID is native.
+    // The target type decides instead: the UUID object for a native uuid column, 16 bytes for BINARY, text otherwise.
+    private static void bindUuid(PreparedStatement statement, int index, UUID uuid) throws SQLException {
+        switch (getUuidBinding(statement, index)) {
+            case OBJECT:
+                statement.setObject(index, uuid);
+                break;
+
+            case BYTES: {
+                var bytes = ByteBuffer.allocate(16)
+                        .putLong(uuid.getMostSignificantBits())
+                        .putLong(uuid.getLeastSignificantBits());
+
+                statement.setBytes(index, bytes.array());
+                break;
+            }
+
+            default:
+                statement.setString(index, uuid.toString());
+                break;
+        }
+    }
+
+    private static UuidBinding getUuidBinding(PreparedStatement statement, int index) throws SQLException {
+        try {
+            var metaData = statement.getParameterMetaData();
+            var typeName = metaData.getParameterTypeName(index);
+
+            if ("uuid".equalsIgnoreCase(typeName))
+                return UuidBinding.OBJECT;
+
+            switch (metaData.getParameterType(index)) {
+                case Types.BINARY:
+                case Types.VARBINARY:
+                    return UuidBinding.BYTES;
+
+                case Types.CHAR:
+                case Types.VARCHAR:
+                case Types.NCHAR:
+                case Types.NVARCHAR:
+                case Types.LONGVARCHAR:
+                    return UuidBinding.STRING;
+            }
+        } catch (SQLException | UnsupportedOperationException ignored) {
+            // Parameter metadata is optional, the database product decides below
+        }
+
+        var productName = statement.getConnection().getMetaData().getDatabaseProductName();
+
+        if (productName != null && (productName.startsWith("PostgreSQL") || productName.startsWith("H2") || productName.startsWith("HSQL")))
+            return UuidBinding.OBJECT;
+
+        return UuidBinding.STRING;
+    }
+
+    private enum UuidBinding {
+        OBJECT,
+        BYTES,
+        STRING
+    }
+}
@@ -0,0 +1,54 @@
+package com.chequer.jdbcnet.bridge.codec;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * SQL types of the parameters of one prepared statement, read from {@link java.sql.ParameterMetaData} on first use.
+ * Drivers such as Oracle and DB2 reject setNull with Types.NULL, so nulls are bound with the parameter's own type.
+ * When the driver can't tell, VARCHAR is used, which every driver converts from.
+ */
+public class ParameterTypes {
+    //region Fields
+    private final PreparedStatement _statement;
+    private int[] _types;
+    //endregion
+
+    //region Constructor
+    public ParameterTypes(PreparedStatement statement) {
+        _statement = statement;
+    }
+    //endregion
+
+    //region Public Methods
+    public int getNullType(int index) {
+        if (_types == null) {
+            _types = readTypes();
+        }
+
+        if (index > _types.length)
+            return Types.VARCHAR;
+
+        return _types[index - 1];
+    }
+    //endregion
+
+    //region Private Methods
+    private int[] readTypes() {
+        try {
+            var metaData = _statement.getParameterMetaData();
+            var types = new int[metaData.getParameterCount()];
+
+            for (int i = 0; i < types.length; i++) {
+                var type = metaData.getParameterType(i + 1);
+                types[i] = type == Types.NULL ? Types.VARCHAR : type;
+            }
+
+            return types;
+        } catch (SQLException | RuntimeException e) {
+            return new int[0];
+        }
+    }
+    //endregion
+}
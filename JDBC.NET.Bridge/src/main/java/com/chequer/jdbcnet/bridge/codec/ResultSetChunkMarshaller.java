@@ -0,0 +1,214 @@
+package com.chequer.jdbcnet.bridge.codec;
+
+import com.chequer.jdbcnet.bridge.models.ResultSetChunk;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import io.grpc.Drainable;
+import io.grpc.KnownLength;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.grpc.netty.shaded.io.netty.buffer.Unpooled;
+import proto.reader.Reader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Writes a {@link ResultSetChunk} as a {@code ReadResultSetResponse} without building the protobuf message.
+ * The scalar fields are encoded into a small header followed by the 'rows' field, whose bytes are drained
+ * straight from the chunk buffer into the transport. The stream holds its own reference to the chunk buffer
+ * and drops it once the transport has consumed or discarded the message.
+ */
+public class ResultSetChunkMarshaller implements MethodDescriptor.Marshaller<ResultSetChunk> {
+    //region Fields
+    public static final ResultSetChunkMarshaller INSTANCE = new ResultSetChunkMarshaller();
+    //endregion
+
+    //region Marshaller
+    @Override
+    public InputStream stream(ResultSetChunk chunk) {
+        return new ChunkStream(chunk.retain(), writeHeader(chunk));
+    }
+
+    @Override
+    public ResultSetChunk parse(InputStream stream) {
+        try {
+            var response = Reader.ReadResultSetResponse.parseFrom(stream);
+
+            return new ResultSetChunk(
+                    Unpooled.wrappedBuffer(response.getRows().asReadOnlyByteBuffer()),
+                    response.getFormat(),
+                    response.getCompression(),
+                    response.getUncompressedSize(),
+                    response.getIsCompleted());
+        } catch (IOException e) {
+            throw Status.INTERNAL
+                    .withDescription("Invalid protobuf byte sequence")
+                    .withCause(e)
+                    .asRuntimeException();
+        }
+    }
+    //endregion
+
+    //region Private Methods
+    // Every field but 'rows', then the tag and length of 'rows'. Default values are omitted as protobuf would.
+    private static byte[] writeHeader(ResultSetChunk chunk) {
+        var rowsLength = chunk.getSize();
+        var size = 0;
+
+        if (chunk.isCompleted()) {
+            size += CodedOutputStream.computeBoolSize(Reader.ReadResultSetResponse.ISCOMPLETED_FIELD_NUMBER, true);
+        }
+
+        if (chunk.getFormat() != Reader.ChunkFormat.ROW) {
+            size += CodedOutputStream.computeEnumSize(Reader.ReadResultSetResponse.FORMAT_FIELD_NUMBER, chunk.getFormat().getNumber());
+        }
+
+        if (chunk.getCompression() != Reader.ChunkCompression.UNCOMPRESSED) {
+            size += CodedOutputStream.computeEnumSize(Reader.ReadResultSetResponse.COMPRESSION_FIELD_NUMBER, chunk.getCompression().getNumber());
+        }
+
+        if (chunk.getUncompressedSize() != 0) {
+            size += CodedOutputStream.computeInt32Size(Reader.ReadResultSetResponse.UNCOMPRESSEDSIZE_FIELD_NUMBER, chunk.getUncompressedSize());
+        }
+
+        if (rowsLength > 0) {
+            size += CodedOutputStream.computeTagSize(Reader.ReadResultSetResponse.ROWS_FIELD_NUMBER);
+            size += CodedOutputStream.computeUInt32SizeNoTag(rowsLength);
+        }
+
+        var header = new byte[size];
+        var output = CodedOutputStream.newInstance(header);
+
+        try {
+            if (chunk.isCompleted()) {
+                output.writeBool(Reader.ReadResultSetResponse.ISCOMPLETED_FIELD_NUMBER, true);
+            }
+
+            if (chunk.getFormat() != Reader.ChunkFormat.ROW) {
+                output.writeEnum(Reader.ReadResultSetResponse.FORMAT_FIELD_NUMBER, chunk.getFormat().getNumber());
+            }
+
+            if (chunk.getCompression() != Reader.ChunkCompression.UNCOMPRESSED) {
+                output.writeEnum(Reader.ReadResultSetResponse.COMPRESSION_FIELD_NUMBER, chunk.getCompression().getNumber());
+            }
+
+            if (chunk.getUncompressedSize() != 0) {
+                output.writeInt32(Reader.ReadResultSetResponse.UNCOMPRESSEDSIZE_FIELD_NUMBER, chunk.getUncompressedSize());
+            }
+
+            if (rowsLength > 0) {
+                output.writeTag(Reader.ReadResultSetResponse.ROWS_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                output.writeUInt32NoTag(rowsLength);
+            }
+
+            output.checkNoSpaceLeft();
+        } catch (IOException e) {
+            // Writing into an exactly sized array cannot fail
+            throw new IllegalStateException(e);
+        }
+
+        return header;
+    }
+    //endregion
+
+    //region ChunkStream
+    private static class ChunkStream extends InputStream implements Drainable, KnownLength {
+        //region Fields
+        private final ResultSetChunk _chunk;
+        private final byte[] _header;
+        private final int _length;
+        private int _position;
+        private boolean _isClosed;
+        //endregion
+
+        //region Constructor
+        public ChunkStream(ResultSetChunk chunk, byte[] header) {
+            _chunk = chunk;
+            _header = header;
+            _length = header.length + chunk.getSize();
+        }
+        //endregion
+
+        //region InputStream
+        @Override
+        public int available() {
+            return _isClosed ? 0 : _length - _position;
+        }
+
+        @Override
+        public int read() {
+            if (available() == 0)
+                return -1;
+
+            var rows = _chunk.getRows();
+            var value = _position < _header.length
+                    ? _header[_position]
+                    : rows.getByte(rows.readerIndex() + _position - _header.length);
+
+            _position++;
+            return value & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            var remaining = available();
+
+            if (remaining == 0)
+                return -1;
+
+            length = Math.min(length, remaining);
+
+            var rows = _chunk.getRows();
+            var written = 0;
+
+            if (_position < _header.length) {
+                written = Math.min(length, _header.length - _position);
+                System.arraycopy(_header, _position, buffer, offset, written);
+            }
+
+            if (written < length) {
+                var rowOffset = _position + written - _header.length;
+                rows.getBytes(rows.readerIndex() + rowOffset, buffer, offset + written, length - written);
+            }
+
+            _position += length;
+            return length;
+        }
+
+        @Override
+        public void close() {
+            if (_isClosed)
+                return;
+
+            _isClosed = true;
+            _chunk.release();
+        }
+        //endregion
+
+        //region Drainable
+        @Override
+        public int drainTo(OutputStream target) throws IOException {
+            var count = available();
+
+            if (count == 0)
+                return 0;
+
+            if (_position < _header.length) {
+                target.write(_header, _position, _header.length - _position);
+            }
+
+            var rows = _chunk.getRows();
+            var rowOffset = Math.max(0, _position - _header.length);
+            rows.getBytes(rows.readerIndex() + rowOffset, target, rows.readableBytes() - rowOffset);
+
+            _position = _length;
+            close();
+
+            return count;
+        }
+        //endregion
+    }
+    //endregion
+}
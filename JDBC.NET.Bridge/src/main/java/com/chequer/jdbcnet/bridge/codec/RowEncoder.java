@@ -0,0 +1,249 @@
+package com.chequer.jdbcnet.bridge.codec;
+
+import com.chequer.jdbcnet.bridge.manager.ChunkBufferPool;
+import io.grpc.netty.shaded.io.netty.buffer.ByteBuf;
+import io.grpc.netty.shaded.io.netty.buffer.Unpooled;
+import proto.Common;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * Per-column encoding plan built once from {@link ResultSetMetaData}.
+ * Known column classes are read with typed getters + {@code wasNull}, the rest fall back to {@code getObject}.
+ */
+public class RowEncoder implements ChunkEncoder {
+    //region Fields
+    private final ColumnCodec[] _codecs;
+    private final ChunkSizeHistory _history = new ChunkSizeHistory();
+    private ByteBuf _buffer;
+    //endregion
+
+    //region Constructor
+    public RowEncoder(ResultSetMetaData metaData) throws SQLException {
+        _codecs = new ColumnCodec[metaData.getColumnCount()];
+
+        for (int i = 0; i < _codecs.length; i++) {
+            _codecs[i] = ColumnCodec.fromMetaData(metaData, i + 1);
+        }
+    }
+    //endregion
+
+    //region Public Methods
+    public int getColumnCount() {
+        return _codecs.length;
+    }
+
+    public void encode(ResultSet resultSet, ByteBuf buffer) throws SQLException, IOException {
+        for (int i = 0; i < _codecs.length; i++) {
+            var index = i + 1;
+
+            switch (_codecs[i]) {
+                case TEXT: {
+                    // Some drivers report java.lang.String but return another type, which keeps its own item type
+                    var value = resultSet.getObject(index);
+
+                    if (value instanceof String) {
+                        buffer.writeByte((byte) Common.JdbcItemType.TEXT_VALUE);
+                        ValueEncoder.writeText(buffer, (String) value);
+                    } else {
+                        ValueEncoder.encodeValue(buffer, value);
+                    }
+                    break;
+                }
+
+                case BYTE: {
+                    var value = resultSet.getByte(index);
+
+                    if (resultSet.wasNull()) {
+                        writeNull(buffer);
+                    } else {
+                        buffer.writeByte((byte) Common.JdbcItemType.BYTE_VALUE);
+                        buffer.writeByte(value);
+                    }
+                    break;
+                }
+
+                case SHORT: {
+                    var value = resultSet.getShort(index);
+
+                    if (resultSet.wasNull()) {
+                        writeNull(buffer);
+                    } else {
+                        buffer.writeByte((byte) Common.JdbcItemType.SHORT_VALUE);
+                        buffer.writeShortLE(value);
+                    }
+                    break;
+                }
+
+                case INTEGER: {
+                    var value = resultSet.getInt(index);
+
+                    if (resultSet.wasNull()) {
+                        writeNull(buffer);
+                    } else {
+                        buffer.writeByte((byte) Common.JdbcItemType.INTEGER_VALUE);
+                        buffer.writeIntLE(value);
+                    }
+                    break;
+                }
+
+                case LONG: {
+                    var value = resultSet.getLong(index);
+
+                    if (resultSet.wasNull()) {
+                        writeNull(buffer);
+                    } else {
+                        buffer.writeByte((byte) Common.JdbcItemType.LONG_VALUE);
+                        buffer.writeLongLE(value);
+                    }
+                    break;
+                }
+
+                case FLOAT: {
+                    var value = resultSet.getFloat(index);
+
+                    if (resultSet.wasNull()) {
+                        writeNull(buffer);
+                    } else {
+                        buffer.writeByte((byte) Common.JdbcItemType.FLOAT_VALUE);
+                        buffer.writeFloatLE(value);
+                    }
+                    break;
+                }
+
+                case DOUBLE: {
+                    var value = resultSet.getDouble(index);
+
+                    if (resultSet.wasNull()) {
+                        writeNull(buffer);
+                    } else {
+                        buffer.writeByte((byte) Common.JdbcItemType.DOUBLE_VALUE);
+                        buffer.writeDoubleLE(value);
+                    }
+                    break;
+                }
+
+                case BOOLEAN: {
+                    var value = resultSet.getBoolean(index);
+
+                    if (resultSet.wasNull()) {
+                        writeNull(buffer);
+                    } else {
+                        buffer.writeByte((byte) Common.JdbcItemType.BOOLEAN_VALUE);
+                        buffer.writeBoolean(value);
+                    }
+                    break;
+                }
+
+                case BIG_DECIMAL: {
+                    var value = resultSet.getBigDecimal(index);
+
+                    if (value == null) {
+                        writeNull(buffer);
+                    } else {
+                        ValueEncoder.writeBigDecimal(buffer, value);
+                    }
+                    break;
+                }
+
+                case DATE: {
+                    var value = resultSet.getDate(index);
+
+                    if (value == null) {
+                        writeNull(buffer);
+                    } else {
+                        buffer.writeByte((byte) Common.JdbcItemType.DATE_VALUE);
+                        buffer.writeLongLE(value.getTime());
+                    }
+                    break;
+                }
+
+                case TIME: {
+                    var value = resultSet.getTime(index);
+
+                    if (value == null) {
+                        writeNull(buffer);
+                    } else {
+                        buffer.writeByte((byte) Common.JdbcItemType.TIME_VALUE);
+                        buffer.writeLongLE(value.getTime());
+                    }
+                    break;
+                }
+
+                case DATE_TIME: {
+                    var value = resultSet.getTimestamp(index);
+
+                    if (value == null) {
+                        writeNull(buffer);
+                    } else {
+                        buffer.writeByte((byte) Common.JdbcItemType.DATE_TIME_VALUE);
+                        buffer.writeLongLE(value.getTime());
+                    }
+                    break;
+                }
+
+                case BINARY: {
+                    var value = resultSet.getBytes(index);
+
+                    if (value == null) {
+                        writeNull(buffer);
+                    } else {
+                        buffer.writeByte((byte) Common.JdbcItemType.BINARY_VALUE);
+                        buffer.writeIntLE(value.length);
+                        buffer.writeBytes(value);
+                    }
+                    break;
+                }
+
+                default:
+                    ValueEncoder.encodeValue(buffer, resultSet.getObject(index));
+                    break;
+            }
+        }
+    }
+    //endregion
+
+    //region ChunkEncoder
+    @Override
+    public void encode(ResultSet resultSet) throws SQLException, IOException {
+        if (_buffer == null) {
+            _buffer = ChunkBufferPool.acquire(_history.predict());
+        }
+
+        encode(resultSet, _buffer);
+    }
+
+    @Override
+    public int getSize() {
+        return _buffer == null ? 0 : _buffer.readableBytes();
+    }
+
+    @Override
+    public ByteBuf finish(boolean isCompleted) {
+        var buffer = _buffer != null ? _buffer : Unpooled.EMPTY_BUFFER;
+        _buffer = null;
+
+        _history.add(buffer.readableBytes());
+
+        return buffer;
+    }
+
+    @Override
+    public void release() {
+        if (_buffer != null) {
+            ChunkBufferPool.recycle(_buffer);
+            _buffer = null;
+        }
+    }
+    //endregion
+
+    //region Private Methods
+    private static void writeNull(ByteBuf buffer) {
+        // | TYPE(1) |
+        buffer.writeByte((byte) Common.JdbcItemType.NULL_VALUE);
+    }
+    //endregion
+}
@@ -0,0 +1,149 @@
+package com.chequer.jdbcnet.bridge.codec;
+
+import io.grpc.netty.shaded.io.netty.buffer.ByteBuf;
+import io.grpc.netty.shaded.io.netty.buffer.ByteBufAllocator;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+
+/**
+ * Per-chunk dictionary of one text column. Each distinct value is UTF-8 encoded once and rows only store its index.
+ * A column that turns out not to be low-cardinality is materialized back into a plain vector and the dictionary
+ * is not tried again for the rest of the result set.
+ */
+class TextDictionary {
+    //region Constants
+    private static final int MAX_ENTRIES = 4096;
+    //endregion
+
+    //region Fields
+    private final HashMap<String, Integer> _lookup = new HashMap<>();
+    private ByteBuf _offsets;
+    private ByteBuf _data;
+    private ByteBuf _indices;
+    private boolean _isActive = true;
+    //endregion
+
+    //region Public Methods
+    public boolean isActive() {
+        return _isActive;
+    }
+
+    // Returns false when the dictionary is full, the caller then has to materialize it
+    public boolean add(String value) {
+        allocate();
+
+        var index = _lookup.get(value);
+
+        if (index == null) {
+            if (_lookup.size() >= MAX_ENTRIES)
+                return false;
+
+            index = _lookup.size();
+            _lookup.put(value, index);
+
+            _data.writeCharSequence(value, StandardCharsets.UTF_8);
+            _offsets.writeIntLE(_data.writerIndex());
+        }
+
+        _indices.writeShortLE(index);
+        return true;
+    }
+
+    public void addNull() {
+        allocate();
+        _indices.writeShortLE(0);
+    }
+
+    // Bytes written by write(), indices are kept 2 bytes wide here but sent 1 byte wide for up to 256 entries
+    public int getSize() {
+        if (!_isActive || _indices == null)
+            return 0;
+
+        var rowCount = _indices.readableBytes() / 2;
+        var indexWidth = _lookup.size() <= 256 ? 1 : 2;
+
+        return 5 + _offsets.readableBytes() + _data.readableBytes() + rowCount * indexWidth;
+    }
+
+    // A dictionary only pays off when values repeat within the chunk
+    public boolean isWorthwhile(int rowCount) {
+        return _lookup.size() <= rowCount / 2;
+    }
+
+    // Rewrites the rows encoded so far as a plain offsets + data vector and deactivates the dictionary
+    public void materialize(ByteBuf validity, int rowCount, ByteBuf offsets, ByteBuf values) {
+        offsets.clear();
+        values.clear();
+        offsets.writeIntLE(0);
+
+        for (int row = 0; row < rowCount; row++) {
+            if ((validity.getByte(row >>> 3) & (1 << (row & 7))) != 0) {
+                var index = _indices.getUnsignedShortLE(row * 2);
+                var start = _offsets.getIntLE(index * 4);
+                var end = _offsets.getIntLE(index * 4 + 4);
+
+                values.writeBytes(_data, start, end - start);
+            }
+
+            offsets.writeIntLE(values.writerIndex());
+        }
+
+        _isActive = false;
+    }
+
+    public void write(ByteBuf buffer, int rowCount) {
+        // | DICT_COUNT(4) | DICT_OFFSETS((DICT_COUNT + 1) * 4) | DICT_DATA(N) | INDEX_WIDTH(1) | INDICES(ROW_COUNT * INDEX_WIDTH) |
+        buffer.writeIntLE(_lookup.size());
+        buffer.writeBytes(_offsets, _offsets.readerIndex(), _offsets.readableBytes());
+        buffer.writeBytes(_data, _data.readerIndex(), _data.readableBytes());
+
+        if (_lookup.size() <= 256) {
+            buffer.writeByte(1);
+
+            for (int row = 0; row < rowCount; row++) {
+                buffer.writeByte(_indices.getUnsignedShortLE(row * 2));
+            }
+        } else {
+            buffer.writeByte(2);
+            buffer.writeBytes(_indices, _indices.readerIndex(), _indices.readableBytes());
+        }
+    }
+
+    public void reset() {
+        _lookup.clear();
+
+        if (_indices != null) {
+            _offsets.clear();
+            _data.clear();
+            _indices.clear();
+            _offsets.writeIntLE(0);
+        }
+    }
+
+    public void release() {
+        _lookup.clear();
+
+        if (_indices != null) {
+            _offsets.release();
+            _data.release();
+            _indices.release();
+            _offsets = null;
+            _data = null;
+            _indices = null;
+        }
+    }
+    //endregion
+
+    //region Private Methods
+    private void allocate() {
+        if (_indices != null)
+            return;
+
+        _offsets = ByteBufAllocator.DEFAULT.buffer();
+        _data = ByteBufAllocator.DEFAULT.buffer();
+        _indices = ByteBufAllocator.DEFAULT.buffer();
+        _offsets.writeIntLE(0);
+    }
+    //endregion
+}
@@ -0,0 +1,117 @@
+package com.chequer.jdbcnet.bridge.codec;
+
+import io.grpc.netty.shaded.io.netty.buffer.ByteBuf;
+import proto.Common;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+
+/**
+ * Reads values in the row format written by {@link ValueEncoder} and binds them as statement parameters.
+ */
+public class ValueDecoder {
+    public static void bindValue(ByteBuf buffer, PreparedStatement statement, ParameterTypes parameterTypes, int index) throws SQLException {
+        var type = buffer.readByte();
+
+        switch (type) {
+            case Common.JdbcItemType.NULL_VALUE:
+                // | TYPE(1) |
+                statement.setNull(index, parameterTypes.getNullType(index));
+                break;
+
+            case Common.JdbcItemType.TEXT_VALUE:
+            case Common.JdbcItemType.UNKNOWN_VALUE:
+                // | TYPE(1) | LENGTH(4) | VALUE(N) |
+                statement.setString(index, readText(buffer));
+                break;
+
+            case Common.JdbcItemType.BYTE_VALUE:
+                // | TYPE(1) | VALUE(1) |
+                statement.setByte(index, buffer.readByte());
+                break;
+
+            case Common.JdbcItemType.SHORT_VALUE:
+                // | TYPE(1) | VALUE(2) |
+                statement.setShort(index, buffer.readShortLE());
+                break;
+
+            case Common.JdbcItemType.INTEGER_VALUE:
+                // | TYPE(1) | VALUE(4) |
+                statement.setInt(index, buffer.readIntLE());
+                break;
+
+            case Common.JdbcItemType.LONG_VALUE:
+                // | TYPE(1) | VALUE(8) |
+                statement.setLong(index, buffer.readLongLE());
+                break;
+
+            case Common.JdbcItemType.FLOAT_VALUE:
+                // | TYPE(1) | VALUE(4) |
+                statement.setFloat(index, buffer.readFloatLE());
+                break;
+
+            case Common.JdbcItemType.DOUBLE_VALUE:
+                // | TYPE(1) | VALUE(8) |
+                statement.setDouble(index, buffer.readDoubleLE());
+                break;
+
+            case Common.JdbcItemType.CHAR_VALUE:
+                // | TYPE(1) | VALUE(2) |
+                statement.setString(index, String.valueOf((char) buffer.readShortLE()));
+                break;
+
+            case Common.JdbcItemType.BOOLEAN_VALUE:
+                // | TYPE(1) | VALUE(1) |
+                statement.setBoolean(index, buffer.readBoolean());
+                break;
+
+            case Common.JdbcItemType.BIG_INTEGER_VALUE:
+                // | TYPE(1) | LENGTH(4) | VALUE(N) |
+                statement.setBigDecimal(index, new BigDecimal(new BigInteger(readBytes(buffer))));
+                break;
+
+            case Common.JdbcItemType.BIG_DECIMAL_VALUE: {
+                // | TYPE(1) | SCALE(4) | LENGTH(4) | VALUE(N) |
+                var scale = buffer.readIntLE();
+                statement.setBigDecimal(index, new BigDecimal(new BigInteger(readBytes(buffer)), scale));
+                break;
+            }
+
+            case Common.JdbcItemType.DATE_VALUE:
+                // | TYPE(1) | VALUE(8) |
+                statement.setDate(index, new Date(buffer.readLongLE()));
+                break;
+
+            case Common.JdbcItemType.TIME_VALUE:
+                // | TYPE(1) | VALUE(8) |
+                statement.setTime(index, new Time(buffer.readLongLE()));
+                break;
+
+            case Common.JdbcItemType.DATE_TIME_VALUE:
+                // | TYPE(1) | VALUE(8) |
+                statement.setTimestamp(index, new Timestamp(buffer.readLongLE()));
+                break;
+
+            case Common.JdbcItemType.BINARY_VALUE:
+                // | TYPE(1) | LENGTH(4) | VALUE(N) |
+                statement.setBytes(index, readBytes(buffer));
+                break;
+
+            default:
+                throw new SQLException("Unsupported parameter type " + type + " at index " + index);
+        }
+    }
+
+    private static String readText(ByteBuf buffer) {
+        var length = buffer.readIntLE();
+        return buffer.readCharSequence(length, StandardCharsets.UTF_8).toString();
+    }
+
+    private static byte[] readBytes(ByteBuf buffer) {
+        var bytes = new byte[buffer.readIntLE()];
+        buffer.readBytes(bytes);
+        return bytes;
+    }
+}
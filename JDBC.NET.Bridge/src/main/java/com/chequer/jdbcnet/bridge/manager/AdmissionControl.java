@@ -0,0 +1,201 @@
+package com.chequer.jdbcnet.bridge.manager;
+
+import io.grpc.Status;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Global caps on concurrent executions, open result sets and chunk bytes held in memory.
+ * Executions and chunk reads on behalf of a call wait up to the admission wait for room, then fail with RESOURCE_EXHAUSTED
+ * so the client can back off. Prefetching waits for chunk memory without a deadline until its result set is closed.
+ * A result set slot is reserved before the statement runs and is rejected right away when none is left.
+ * Every cap is disabled while 0.
+ */
+public class AdmissionControl {
+    //region Fields
+    private static final Permit NO_PERMIT = () -> {
+    };
+
+    private static final ResultSetSlot NO_SLOT = new ResultSetSlot(false);
+    private static final long STOP_CHECK_MILLIS = 100;
+
+    private static final AtomicInteger _openResultSets = new AtomicInteger();
+    private static final Object _chunkLock = new Object();
+    private static long _chunkBytes;
+
+    private static volatile Semaphore _executions;
+    private static volatile int _maxResultSets;
+    private static volatile long _maxChunkBytes;
+    private static volatile long _waitMillis = 1000;
+    //endregion
+
+    //region Public Methods
+    public static void setMaxExecutions(int maxExecutions) {
+        _executions = maxExecutions > 0 ? new Semaphore(maxExecutions, true) : null;
+    }
+
+    public static void setMaxResultSets(int maxResultSets) {
+        _maxResultSets = maxResultSets;
+    }
+
+    public static void setMaxChunkBytes(long maxChunkBytes) {
+        _maxChunkBytes = maxChunkBytes;
+    }
+
+    public static void setWaitMillis(long waitMillis) {
+        _waitMillis = waitMillis;
+    }
+
+    // Holds one execution slot until the permit is closed
+    public static Permit acquireExecution() {
+        var executions = _executions;
+
+        if (executions == null)
+            return NO_PERMIT;
+
+        try {
+            if (!executions.tryAcquire(_waitMillis, TimeUnit.MILLISECONDS))
+                throw Status.RESOURCE_EXHAUSTED
+                        .withDescription("Too many concurrent executions")
+                        .asRuntimeException();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw Status.CANCELLED
+                    .withDescription("Interrupted while waiting for an execution slot")
+                    .asRuntimeException();
+        }
+
+        return executions::release;
+    }
+
+    // Holds one open result set slot until it is closed, or until the result set it was detached to is closed
+    public static ResultSetSlot reserveResultSet() {
+        var maxResultSets = _maxResultSets;
+
+        if (maxResultSets <= 0)
+            return NO_SLOT;
+
+        while (true) {
+            var count = _openResultSets.get();
+
+            if (count >= maxResultSets)
+                throw Status.RESOURCE_EXHAUSTED
+                        .withDescription("Too many open result sets")
+                        .asRuntimeException();
+
+            if (_openResultSets.compareAndSet(count, count + 1))
+                return new ResultSetSlot(true);
+        }
+    }
+
+    // Waits until the chunks in memory are under budget. A single chunk may still overshoot it.
+    // Used on the calling thread, the call fails once the admission wait has passed.
+    public static void awaitChunkBudget() {
+        var maxChunkBytes = _maxChunkBytes;
+
+        if (maxChunkBytes <= 0)
+            return;
+
+        var deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(_waitMillis);
+
+        synchronized (_chunkLock) {
+            while (_chunkBytes >= maxChunkBytes) {
+                var remaining = deadline - System.nanoTime();
+
+                if (remaining <= 0)
+                    throw Status.RESOURCE_EXHAUSTED
+                            .withDescription("Too many chunk bytes in flight")
+                            .asRuntimeException();
+
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(_chunkLock, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw Status.CANCELLED
+                            .withDescription("Interrupted while waiting for chunk memory")
+                            .asRuntimeException();
+                }
+            }
+        }
+    }
+
+    // Producer side of the chunk budget: waits as long as it takes and returns false only once stopped
+    public static boolean awaitChunkBudget(BooleanSupplier isStopped) throws InterruptedException {
+        var maxChunkBytes = _maxChunkBytes;
+
+        if (maxChunkBytes <= 0)
+            return !isStopped.getAsBoolean();
+
+        synchronized (_chunkLock) {
+            while (_chunkBytes >= maxChunkBytes) {
+                if (isStopped.getAsBoolean())
+                    return false;
+
+                _chunkLock.wait(STOP_CHECK_MILLIS);
+            }
+        }
+
+        return !isStopped.getAsBoolean();
+    }
+
+    public static void addChunkBytes(long bytes) {
+        synchronized (_chunkLock) {
+            _chunkBytes += bytes;
+        }
+    }
+
+    public static void releaseChunkBytes(long bytes) {
+        synchronized (_chunkLock) {
+            _chunkBytes -= bytes;
+            _chunkLock.notifyAll();
+        }
+    }
+
+    public static long getChunkBytes() {
+        synchronized (_chunkLock) {
+            return _chunkBytes;
+        }
+    }
+
+    public static int getOpenResultSets() {
+        return _openResultSets.get();
+    }
+
+    public static long getQueuedExecutions() {
+        var executions = _executions;
+        return executions == null ? 0 : executions.getQueueLength();
+    }
+    //endregion
+
+    //region Permit
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+    //endregion
+
+    //region ResultSetSlot
+    public static class ResultSetSlot implements AutoCloseable {
+        private final AtomicBoolean _isHeld;
+
+        private ResultSetSlot(boolean isHeld) {
+            _isHeld = new AtomicBoolean(isHeld);
+        }
+
+        // Hands the slot over to a new owner, this one is left empty and closing it does nothing
+        public ResultSetSlot detach() {
+            return _isHeld.compareAndSet(true, false) ? new ResultSetSlot(true) : NO_SLOT;
+        }
+
+        @Override
+        public void close() {
+            if (_isHeld.compareAndSet(true, false))
+                _openResultSets.decrementAndGet();
+        }
+    }
+    //endregion
+}
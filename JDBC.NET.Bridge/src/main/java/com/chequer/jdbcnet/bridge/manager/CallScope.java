@@ -0,0 +1,138 @@
+package com.chequer.jdbcnet.bridge.manager;
+
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Pins every object a call looks up or creates, together with its owners, until the call ends.
+ * The idle reaper skips pinned objects, so a long execution or a stream that looked its object up once
+ * is never closed under the thread still using it. Ending the scope marks the objects as used once more.
+ */
+public class CallScope implements ServerInterceptor {
+    //region Fields
+    public static final CallScope INSTANCE = new CallScope();
+
+    private static final Context.Key<Pins> PINS_KEY = Context.key("jdbcnet-pins");
+    //endregion
+
+    //region Public Methods
+    // A nested scope of its own, e.g. for one operation of a session stream that outlives it
+    public static Scope open() {
+        var pins = new Pins();
+        var context = Context.current().withValue(PINS_KEY, pins);
+
+        return new Scope(context, context.attach(), pins);
+    }
+
+    static Pins currentPins() {
+        return PINS_KEY.get();
+    }
+    //endregion
+
+    //region ServerInterceptor
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+        var pins = new Pins();
+        ServerCall.Listener<ReqT> listener;
+
+        try {
+            listener = Contexts.interceptCall(Context.current().withValue(PINS_KEY, pins), call, headers, next);
+        } catch (RuntimeException e) {
+            pins.release();
+            throw e;
+        }
+
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(listener) {
+            @Override
+            public void onComplete() {
+                try {
+                    super.onComplete();
+                } finally {
+                    pins.release();
+                }
+            }
+
+            @Override
+            public void onCancel() {
+                try {
+                    super.onCancel();
+                } finally {
+                    pins.release();
+                }
+            }
+        };
+    }
+    //endregion
+
+    //region Scope
+    public static class Scope implements AutoCloseable {
+        //region Fields
+        private final Context _context;
+        private final Context _previous;
+        private final Pins _pins;
+        //endregion
+
+        //region Constructor
+        private Scope(Context context, Context previous, Pins pins) {
+            _context = context;
+            _previous = previous;
+            _pins = pins;
+        }
+        //endregion
+
+        //region AutoCloseable
+        @Override
+        public void close() {
+            _context.detach(_previous);
+            _pins.release();
+        }
+        //endregion
+    }
+    //endregion
+
+    //region Pins
+    static class Pins {
+        //region Fields
+        private final Set<ObjectManager.ManagedObject> _objects = Collections.newSetFromMap(new IdentityHashMap<>());
+        private boolean _isReleased;
+        //endregion
+
+        //region Public Methods
+        // Returns false when the object could not be pinned because the reaper is closing it
+        public synchronized boolean add(ObjectManager.ManagedObject object) {
+            // Pull mode reads look the same result set up once per chunk, it is pinned once
+            if (_isReleased || _objects.contains(object))
+                return true;
+
+            if (!object.pin())
+                return false;
+
+            _objects.add(object);
+            return true;
+        }
+
+        public synchronized void release() {
+            if (_isReleased)
+                return;
+
+            _isReleased = true;
+
+            for (var object : _objects) {
+                object.unpin();
+            }
+
+            _objects.clear();
+        }
+        //endregion
+    }
+    //endregion
+}
@@ -0,0 +1,99 @@
+package com.chequer.jdbcnet.bridge.manager;
+
+import io.grpc.netty.shaded.io.netty.buffer.ByteBuf;
+import io.grpc.netty.shaded.io.netty.buffer.ByteBufAllocator;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded pool of direct chunk buffers shared by all result sets, bucketed by power-of-two size classes.
+ * Buffers come back once their chunk has been written out, so steady-state reads stop allocating direct memory.
+ */
+public class ChunkBufferPool {
+    //region Constants
+    private static final int MIN_CLASS_SHIFT = 12; // 4 KiB
+    private static final int MAX_CLASS_SHIFT = 24; // 16 MiB
+    //endregion
+
+    //region Fields
+    @SuppressWarnings("unchecked")
+    private static final ConcurrentLinkedQueue<ByteBuf>[] _classes = new ConcurrentLinkedQueue[MAX_CLASS_SHIFT - MIN_CLASS_SHIFT + 1];
+
+    private static final AtomicLong _pooledBytes = new AtomicLong();
+    private static final LongAdder _hits = new LongAdder();
+    private static final LongAdder _misses = new LongAdder();
+    private static final LongAdder _discards = new LongAdder();
+    private static volatile long _capacity = 64L * 1024 * 1024;
+
+    static {
+        for (int i = 0; i < _classes.length; i++) {
+            _classes[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+    //endregion
+
+    //region Public Methods
+    public static void setCapacity(long capacity) {
+        _capacity = capacity;
+    }
+
+    public static ByteBuf acquire(int size) {
+        var shift = Math.max(MIN_CLASS_SHIFT, 32 - Integer.numberOfLeadingZeros(Math.max(size, 1) - 1));
+
+        if (shift > MAX_CLASS_SHIFT) {
+            _misses.increment();
+            return ByteBufAllocator.DEFAULT.directBuffer(size);
+        }
+
+        // Any buffer of this class (or a larger one that grew into it) is big enough
+        var buffer = _classes[shift - MIN_CLASS_SHIFT].poll();
+
+        if (buffer != null) {
+            _pooledBytes.addAndGet(-buffer.capacity());
+            _hits.increment();
+            return buffer.clear();
+        }
+
+        _misses.increment();
+        return ByteBufAllocator.DEFAULT.directBuffer(1 << shift);
+    }
+
+    public static void recycle(ByteBuf buffer) {
+        var capacity = buffer.capacity();
+
+        if (!buffer.isDirect() || buffer.refCnt() != 1 || capacity < (1 << MIN_CLASS_SHIFT) || capacity > (1 << MAX_CLASS_SHIFT)) {
+            buffer.release();
+            return;
+        }
+
+        if (_pooledBytes.addAndGet(capacity) > _capacity) {
+            _pooledBytes.addAndGet(-capacity);
+            _discards.increment();
+            buffer.release();
+            return;
+        }
+
+        // The largest class whose size the buffer can hold
+        var shift = 31 - Integer.numberOfLeadingZeros(capacity);
+        _classes[shift - MIN_CLASS_SHIFT].offer(buffer);
+    }
+
+    public static long getHits() {
+        return _hits.sum();
+    }
+
+    public static long getMisses() {
+        return _misses.sum();
+    }
+
+    public static long getDiscards() {
+        return _discards.sum();
+    }
+
+    public static long getPooledBytes() {
+        return _pooledBytes.get();
+    }
+    //endregion
+}
@@ -0,0 +1,334 @@
+package com.chequer.jdbcnet.bridge.manager;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Physical connections kept open after the client closes them, keyed by JDBC URL and properties.
+ * A returned connection gets back the auto-commit, isolation, catalog and read-only state it was opened with,
+ * and is checked with {@link Connection#isValid(int)} before being handed out again. Disabled while max idle is 0.
+ * Only connections the client closed itself with no call in flight come back, reaped or abandoned ones are closed.
+ */
+public class ConnectionPool {
+    //region Constants
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+    //endregion
+
+    //region Fields
+    private static final ConcurrentHashMap<PoolKey, IdlePool> _pools = new ConcurrentHashMap<>();
+    private static final Map<Connection, PooledState> _leased = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private static final LongAdder _hits = new LongAdder();
+    private static final LongAdder _misses = new LongAdder();
+    private static final LongAdder _invalidated = new LongAdder();
+    private static final LongAdder _evictions = new LongAdder();
+    private static volatile int _maxIdle;
+    private static volatile int _minIdle;
+    private static volatile long _idleTimeoutNanos;
+    private static ScheduledExecutorService _evictor;
+    //endregion
+
+    //region Public Methods
+    public static void setMaxIdle(int maxIdle) {
+        _maxIdle = maxIdle;
+    }
+
+    public static void setMinIdle(int minIdle) {
+        _minIdle = minIdle;
+    }
+
+    // Idle connections beyond min idle are closed after this many seconds, 0 keeps them
+    public static synchronized void setIdleTimeout(long seconds) {
+        _idleTimeoutNanos = TimeUnit.SECONDS.toNanos(seconds);
+
+        if (_evictor != null) {
+            _evictor.shutdown();
+            _evictor = null;
+        }
+
+        if (seconds <= 0)
+            return;
+
+        _evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "jdbcnet-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        var period = Math.max(1, Math.min(seconds / 2, 60));
+        _evictor.scheduleWithFixedDelay(ConnectionPool::evictIdle, period, period, TimeUnit.SECONDS);
+    }
+
+    public static Connection acquire(String url, Map<String, String> propertiesMap) throws SQLException {
+        var properties = new Properties();
+        properties.putAll(propertiesMap);
+
+        if (_maxIdle <= 0)
+            return DriverManager.getConnection(url, properties);
+
+        var key = new PoolKey(url, propertiesMap);
+        var pool = _pools.get(key);
+
+        if (pool != null) {
+            IdleConnection idle;
+
+            while ((idle = pool.take()) != null) {
+                if (isValid(idle._connection)) {
+                    _hits.increment();
+                    _leased.put(idle._connection, idle._state);
+                    return idle._connection;
+                }
+
+                _invalidated.increment();
+                closeQuietly(idle._connection);
+            }
+        }
+
+        _misses.increment();
+
+        var connection = DriverManager.getConnection(url, properties);
+
+        try {
+            _leased.put(connection, new PooledState(key, connection));
+        } catch (SQLException ignored) {
+            // Without its initial state the connection can not be reset, it is simply not pooled
+        }
+
+        return connection;
+    }
+
+    // Returns false when the connection is not pooled, the caller then closes it
+    public static boolean release(Connection connection) {
+        var state = _leased.remove(connection);
+
+        if (state == null || _maxIdle <= 0)
+            return false;
+
+        try {
+            if (connection.isClosed())
+                return false;
+
+            state.restore(connection);
+        } catch (SQLException e) {
+            return false;
+        }
+
+        return _pools.computeIfAbsent(state._key, key -> new IdlePool()).offer(new IdleConnection(connection, state, System.nanoTime()));
+    }
+
+    // Stops tracking a connection that is closed instead of returned
+    public static void forget(Connection connection) {
+        _leased.remove(connection);
+    }
+
+    public static long getHits() {
+        return _hits.sum();
+    }
+
+    public static long getMisses() {
+        return _misses.sum();
+    }
+
+    public static long getInvalidated() {
+        return _invalidated.sum();
+    }
+
+    public static long getEvictions() {
+        return _evictions.sum();
+    }
+
+    public static long getIdleCount() {
+        var count = 0L;
+
+        for (var pool : _pools.values()) {
+            count += pool.size();
+        }
+
+        return count;
+    }
+    //endregion
+
+    //region Private Methods
+    private static boolean isValid(Connection connection) {
+        try {
+            return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static void evictIdle() {
+        var deadline = System.nanoTime() - _idleTimeoutNanos;
+
+        for (var pool : _pools.values()) {
+            for (var connection : pool.evict(deadline, _minIdle)) {
+                _evictions.increment();
+                closeQuietly(connection);
+            }
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+        }
+    }
+    //endregion
+
+    //region IdlePool
+    private static class IdlePool {
+        //region Fields
+        // Most recently returned first, so rarely used connections age out
+        private final ArrayDeque<IdleConnection> _idle = new ArrayDeque<>();
+        //endregion
+
+        //region Public Methods
+        public synchronized IdleConnection take() {
+            return _idle.pollFirst();
+        }
+
+        public synchronized boolean offer(IdleConnection idle) {
+            if (_idle.size() >= _maxIdle)
+                return false;
+
+            _idle.addFirst(idle);
+            return true;
+        }
+
+        public synchronized ArrayList<Connection> evict(long deadline, int minIdle) {
+            var evicted = new ArrayList<Connection>();
+
+            // The oldest sit at the tail
+            while (_idle.size() > minIdle && _idle.peekLast()._idleSince - deadline < 0) {
+                evicted.add(_idle.pollLast()._connection);
+            }
+
+            return evicted;
+        }
+
+        public synchronized int size() {
+            return _idle.size();
+        }
+        //endregion
+    }
+    //endregion
+
+    //region IdleConnection
+    private static class IdleConnection {
+        //region Fields
+        private final Connection _connection;
+        private final PooledState _state;
+        private final long _idleSince;
+        //endregion
+
+        //region Constructor
+        public IdleConnection(Connection connection, PooledState state, long idleSince) {
+            _connection = connection;
+            _state = state;
+            _idleSince = idleSince;
+        }
+        //endregion
+    }
+    //endregion
+
+    //region PooledState
+    // Session state of a connection right after it was opened
+    private static class PooledState {
+        //region Fields
+        private final PoolKey _key;
+        private final boolean _autoCommit;
+        private final int _transactionIsolation;
+        private final String _catalog;
+        private final boolean _readOnly;
+        //endregion
+
+        //region Constructor
+        public PooledState(PoolKey key, Connection connection) throws SQLException {
+            _key = key;
+            _autoCommit = connection.getAutoCommit();
+            _transactionIsolation = connection.getTransactionIsolation();
+            _catalog = connection.getCatalog();
+            _readOnly = connection.isReadOnly();
+        }
+        //endregion
+
+        //region Public Methods
+        public void restore(Connection connection) throws SQLException {
+            // Whatever the client left uncommitted is discarded
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+            }
+
+            if (connection.getAutoCommit() != _autoCommit) {
+                connection.setAutoCommit(_autoCommit);
+            }
+
+            if (connection.getTransactionIsolation() != _transactionIsolation) {
+                connection.setTransactionIsolation(_transactionIsolation);
+            }
+
+            if (!Objects.equals(connection.getCatalog(), _catalog)) {
+                connection.setCatalog(_catalog);
+
+                // Drivers may ignore a null catalog, such a connection can not be handed to another client
+                if (!Objects.equals(connection.getCatalog(), _catalog))
+                    throw new SQLException("Catalog could not be reset to '" + _catalog + "'");
+            }
+
+            if (connection.isReadOnly() != _readOnly) {
+                connection.setReadOnly(_readOnly);
+            }
+
+            connection.clearWarnings();
+        }
+        //endregion
+    }
+    //endregion
+
+    //region PoolKey
+    private static class PoolKey {
+        //region Fields
+        private final String _url;
+        private final Map<String, String> _properties;
+        //endregion
+
+        //region Constructor
+        public PoolKey(String url, Map<String, String> properties) {
+            _url = url;
+            _properties = Map.copyOf(properties);
+        }
+        //endregion
+
+        //region Object
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof PoolKey))
+                return false;
+
+            var other = (PoolKey) obj;
+
+            return _url.equals(other._url) && _properties.equals(other._properties);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(_url, _properties);
+        }
+        //endregion
+    }
+    //endregion
+}
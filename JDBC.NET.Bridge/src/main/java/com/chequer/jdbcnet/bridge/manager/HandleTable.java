@@ -0,0 +1,170 @@
+package com.chequer.jdbcnet.bridge.manager;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Slot table addressed by 64-bit handles.
+ * <pre>
+ * | TAG(8) | GENERATION(24) | INDEX(32) |
+ * </pre>
+ * The tag tells tables apart and the generation is bumped whenever a slot is freed, so a handle of another table
+ * or of an object that was already removed never resolves. Lookups are lock-free, put and remove take the table lock.
+ */
+public class HandleTable<T> {
+    //region Constants
+    private static final int SEGMENT_SHIFT = 10;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    private static final long GENERATION_MASK = 0xFFFFFF;
+    private static final long TAG_MASK = 0xFF00000000000000L;
+    //endregion
+
+    //region Fields
+    private final long _tag;
+    private volatile Segment<T>[] _segments;
+    private int[] _freeSlots = new int[SEGMENT_SIZE];
+    private int _freeCount;
+    private int _slotCount;
+    private int _size;
+    //endregion
+
+    //region Constructor
+    @SuppressWarnings("unchecked")
+    public HandleTable(int tag) {
+        _tag = (long) (tag & 0xFF) << 56;
+        _segments = new Segment[0];
+    }
+    //endregion
+
+    //region Public Methods
+    public synchronized long put(T value) {
+        int index;
+
+        if (_freeCount > 0) {
+            index = _freeSlots[--_freeCount];
+        } else {
+            index = _slotCount++;
+
+            if ((index >>> SEGMENT_SHIFT) == _segments.length) {
+                grow();
+            }
+        }
+
+        var segment = _segments[index >>> SEGMENT_SHIFT];
+        var offset = index & (SEGMENT_SIZE - 1);
+
+        segment._values.set(offset, value);
+        _size++;
+
+        return _tag | (segment._generations.get(offset) << 32) | index;
+    }
+
+    public T get(long handle) {
+        var segment = findSegment(handle);
+
+        if (segment == null)
+            return null;
+
+        var offset = (int) handle & (SEGMENT_SIZE - 1);
+        var generation = (handle >>> 32) & GENERATION_MASK;
+
+        if (segment._generations.get(offset) != generation)
+            return null;
+
+        var value = segment._values.get(offset);
+
+        // The slot may have been freed and reused while the value was read
+        return segment._generations.get(offset) == generation ? value : null;
+    }
+
+    public synchronized T remove(long handle) {
+        var segment = findSegment(handle);
+
+        if (segment == null)
+            return null;
+
+        var index = (int) handle;
+        var offset = index & (SEGMENT_SIZE - 1);
+        var generation = (handle >>> 32) & GENERATION_MASK;
+
+        if (segment._generations.get(offset) != generation)
+            return null;
+
+        // Invalidate the handle before the value goes away, readers re-check the generation
+        segment._generations.set(offset, nextGeneration(generation));
+        var value = segment._values.getAndSet(offset, null);
+
+        if (_freeCount == _freeSlots.length) {
+            _freeSlots = Arrays.copyOf(_freeSlots, _freeSlots.length * 2);
+        }
+
+        _freeSlots[_freeCount++] = index;
+        _size--;
+
+        return value;
+    }
+
+    // Visits the live values without locking, values put or removed meanwhile may or may not be seen
+    public void forEach(Consumer<T> action) {
+        for (var segment : _segments) {
+            for (int i = 0; i < SEGMENT_SIZE; i++) {
+                var value = segment._values.get(i);
+
+                if (value != null) {
+                    action.accept(value);
+                }
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return _size;
+    }
+    //endregion
+
+    //region Private Methods
+    private Segment<T> findSegment(long handle) {
+        if ((handle & TAG_MASK) != _tag)
+            return null;
+
+        var index = (int) handle;
+        var segments = _segments;
+
+        if (index < 0 || (index >>> SEGMENT_SHIFT) >= segments.length)
+            return null;
+
+        return segments[index >>> SEGMENT_SHIFT];
+    }
+
+    private void grow() {
+        var segments = Arrays.copyOf(_segments, _segments.length + 1);
+        segments[_segments.length] = new Segment<>();
+        _segments = segments;
+    }
+
+    // Generation 0 is never handed out, so a zero-filled handle can not resolve
+    private static long nextGeneration(long generation) {
+        var next = (generation + 1) & GENERATION_MASK;
+        return next == 0 ? 1 : next;
+    }
+    //endregion
+
+    //region Segment
+    private static class Segment<T> {
+        //region Fields
+        private final AtomicLongArray _generations = new AtomicLongArray(SEGMENT_SIZE);
+        private final AtomicReferenceArray<T> _values = new AtomicReferenceArray<>(SEGMENT_SIZE);
+        //endregion
+
+        //region Constructor
+        public Segment() {
+            for (int i = 0; i < SEGMENT_SIZE; i++) {
+                _generations.set(i, 1);
+            }
+        }
+        //endregion
+    }
+    //endregion
+}
@@ -0,0 +1,115 @@
+package com.chequer.jdbcnet.bridge.manager;
+
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallExecutorSupplier;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import proto.bridge.BridgeServiceGrpc;
+import proto.reader.ReaderServiceGrpc;
+import proto.statement.StatementServiceGrpc;
+
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs calls that block on the database on a fixed number of threads. Cancellation and other calls that never block
+ * stay on the default server executor, so a burst of slow queries cannot hold them back.
+ * New calls are refused with RESOURCE_EXHAUSTED while too many others are queued. The interceptor checks this when a call
+ * starts, before any JDBC work: the queue itself stays unbounded, because dropping a callback of a call that was
+ * already admitted would hang it. Closes are never refused, since a refused close would leave its object behind.
+ */
+public class JdbcExecutor implements ServerCallExecutorSupplier, ServerInterceptor {
+    //region Fields
+    public static final JdbcExecutor INSTANCE = new JdbcExecutor();
+
+    private static final Set<String> _cheapMethods = Set.of(
+            StatementServiceGrpc.getCancelStatementMethod().getFullMethodName(),
+            ReaderServiceGrpc.getFreeLobMethod().getFullMethodName(),
+            BridgeServiceGrpc.getGetStatisticsMethod().getFullMethodName());
+
+    // Closing a result set waits for a prefetch in flight, so closes run on the JDBC threads
+    private static final Set<String> _closeMethods = Set.of(
+            StatementServiceGrpc.getCloseStatementMethod().getFullMethodName(),
+            ReaderServiceGrpc.getCloseResultSetMethod().getFullMethodName());
+
+    private static final AtomicInteger _threadNumber = new AtomicInteger();
+    private static final LongAdder _rejected = new LongAdder();
+    private static volatile int _threads = 64;
+    private static volatile int _maxQueued = 1024;
+    private static ThreadPoolExecutor _executor;
+    //endregion
+
+    //region Public Methods
+    public static void setThreads(int threads) {
+        _threads = threads;
+    }
+
+    // 0 never refuses a call
+    public static void setMaxQueued(int maxQueued) {
+        _maxQueued = maxQueued;
+    }
+
+    public static synchronized Executor getExecutor() {
+        if (_executor == null) {
+            _executor = new ThreadPoolExecutor(_threads, _threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                var thread = new Thread(runnable, "jdbcnet-jdbc-" + _threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            _executor.allowCoreThreadTimeOut(true);
+        }
+
+        return _executor;
+    }
+
+    public static long getActiveCount() {
+        var executor = _executor;
+        return executor == null ? 0 : executor.getActiveCount();
+    }
+
+    public static long getQueuedCount() {
+        var executor = _executor;
+        return executor == null ? 0 : executor.getQueue().size();
+    }
+
+    public static long getRejectedCount() {
+        return _rejected.sum();
+    }
+    //endregion
+
+    //region ServerCallExecutorSupplier
+    @Override
+    public <ReqT, RespT> Executor getExecutor(ServerCall<ReqT, RespT> call, Metadata metadata) {
+        // null keeps the call on the server's default executor
+        if (_cheapMethods.contains(call.getMethodDescriptor().getFullMethodName()))
+            return null;
+
+        return getExecutor();
+    }
+    //endregion
+
+    //region ServerInterceptor
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+        var methodName = call.getMethodDescriptor().getFullMethodName();
+        var maxQueued = _maxQueued;
+
+        if (maxQueued <= 0 || getQueuedCount() < maxQueued || _cheapMethods.contains(methodName) || _closeMethods.contains(methodName))
+            return next.startCall(call, headers);
+
+        _rejected.increment();
+        call.close(Status.RESOURCE_EXHAUSTED.withDescription("Too many queued JDBC calls"), new Metadata());
+
+        return new ServerCall.Listener<>() {
+        };
+    }
+    //endregion
+}
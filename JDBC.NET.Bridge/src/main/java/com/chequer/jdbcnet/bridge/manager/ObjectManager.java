@@ -1,69 +1,561 @@
 package com.chequer.jdbcnet.bridge.manager;
 
+import com.chequer.jdbcnet.bridge.codec.ParameterTypes;
+import com.chequer.jdbcnet.bridge.models.LobHandle;
 import com.chequer.jdbcnet.bridge.models.ResultSetEx;
 
+import java.security.MessageDigest;
+import java.security.SecureRandom;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.sql.Statement;
-import java.sql.ResultSet;
-import java.sql.Statement;
-import java.util.UUID;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Objects handed out to the client, one {@link HandleTable} per kind.
+ * Ids are the 64-bit handle followed by a random 64-bit secret, written as 32 hex digits. Handles are sequential,
+ * the secret keeps them from being guessed. An id that is malformed, stale or has the wrong secret resolves to null.
+ * <p>
+ * Objects form an ownership tree: connection, statements and metadata result sets, then the result sets of a statement.
+ * Closing an object closes its children first. Any lookup marks the object and its owners as used, and with an
+ * idle timeout set a background reaper closes trees that no call has used for that long. Objects pinned by a
+ * running call (see {@link CallScope}) are never reaped. Lookups also let {@link TransportTracker} move the connection
+ * to the transport of the current call.
+ */
 public class ObjectManager {
+    //region Constants
+    private static final int HANDLE_LENGTH = 16;
+    private static final int ID_LENGTH = HANDLE_LENGTH * 2;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private static final int STATEMENT_TAG = 1;
+    private static final int CONNECTION_TAG = 2;
+    private static final int RESULT_SET_TAG = 3;
+    private static final int LOB_TAG = 4;
+    //endregion
+
     //region Fields
-    private static final ConcurrentHashMap<String, Statement> _statements = new ConcurrentHashMap<>();
-    private static final ConcurrentHashMap<String, Connection> _connections = new ConcurrentHashMap<>();
-    private static final ConcurrentHashMap<String, ResultSetEx> _resultSets = new ConcurrentHashMap<>();
+    private static final HandleTable<ManagedObject> _statements = new HandleTable<>(STATEMENT_TAG);
+    private static final HandleTable<ManagedObject> _connections = new HandleTable<>(CONNECTION_TAG);
+    private static final HandleTable<ManagedObject> _resultSets = new HandleTable<>(RESULT_SET_TAG);
+    private static final HandleTable<LobHandle> _lobs = new HandleTable<>(LOB_TAG);
+    private static final ThreadLocal<SecureRandom> _random = ThreadLocal.withInitial(SecureRandom::new);
+
+    private static final LongAdder _reapedConnections = new LongAdder();
+    private static final LongAdder _reapedStatements = new LongAdder();
+    private static final LongAdder _reapedResultSets = new LongAdder();
+    private static volatile long _idleTimeoutNanos;
+    private static ScheduledExecutorService _reaper;
     //endregion
 
     //region Statement Method
-    public static String putStatement(Statement statement) {
-        var id = UUID.randomUUID().toString();
-        _statements.put(id, statement);
+    public static String putStatement(String connectionId, Statement statement) {
+        return putStatement(connectionId, statement, false);
+    }
 
-        return id;
+    // Drivers only hand out generated keys of a prepared statement when asked for at prepare time, so that is remembered
+    public static String putStatement(String connectionId, Statement statement, boolean returnsGeneratedKeys) {
+        return put(_statements, statement, connectionId, returnsGeneratedKeys);
+    }
+
+    public static boolean returnsGeneratedKeys(String statementId) {
+        var object = resolve(_statements, statementId);
+        return object != null && object._returnsGeneratedKeys;
+    }
+
+    // Parameter metadata is read from the driver once per statement and reused by every batch and bulk load
+    public static ParameterTypes getParameterTypes(String statementId) {
+        var object = resolve(_statements, statementId);
+
+        if (object == null || !(object._value instanceof PreparedStatement))
+            return null;
+
+        var parameterTypes = object._parameterTypes;
+
+        if (parameterTypes == null) {
+            parameterTypes = new ParameterTypes((PreparedStatement) object._value);
+            object._parameterTypes = parameterTypes;
+        }
+
+        return parameterTypes;
     }
 
     public static Statement getStatement(String statementId) {
-        return _statements.get(statementId);
+        return (Statement) get(_statements, statementId);
+    }
+
+    // Closes the result sets of the statement, then returns a cached prepared statement to its cache or closes it
+    public static void closeStatement(String statementId) throws SQLException {
+        close(_statements, statementId);
+    }
+
+    // Drivers close the previous results when a statement runs again, so ours go first, prefetch included
+    public static void closeResultSets(String statementId) throws SQLException {
+        var statement = resolve(_statements, statementId);
+
+        if (statement == null)
+            return;
+
+        for (var child : statement._children) {
+            close(child, CloseReason.CLIENT);
+        }
     }
 
-    public static void removeStatement(String statementId) {
-        _statements.remove(statementId);
+    // Closes the result set the statement returned last, before getMoreResults lets the driver close it underneath
+    public static void closeCurrentResultSet(String statementId) throws SQLException {
+        var statement = resolve(_statements, statementId);
+
+        if (statement == null)
+            return;
+
+        var current = statement._currentResultSet;
+
+        if (current != null) {
+            close(current, CloseReason.CLIENT);
+        }
     }
     //endregion
 
     //region Connection Method
     public static String putConnection(Connection connection) {
-        var id = UUID.randomUUID().toString();
-        _connections.put(id, connection);
-
-        return id;
+        return put(_connections, connection, null, false);
     }
 
     public static Connection getConnection(String connectionId) {
-        return _connections.get(connectionId);
+        return (Connection) get(_connections, connectionId);
     }
 
-    public static void removeConnection(String connectionId) {
-        _connections.remove(connectionId);
+    // Closes every statement and result set of the connection, then the connection itself.
+    // With nothing in flight the connection may go back to the connection pool.
+    public static void closeConnection(String connectionId) throws SQLException {
+        close(_connections, connectionId);
+    }
+
+    // Closes a connection whose client went away. It is never pooled. Fails while a call still uses the connection
+    // or anything it owns, the caller tries again later.
+    public static boolean abandonConnection(String connectionId) throws SQLException {
+        var object = resolve(_connections, connectionId);
+
+        if (object == null || !object.claim())
+            return false;
+
+        close(object, CloseReason.ABANDONED);
+        return true;
+    }
+
+    // Nanoseconds since the connection or anything it owns was last used, 0 while in use and -1 once it is gone
+    public static long getIdleNanos(String connectionId) {
+        var object = resolve(_connections, connectionId);
+
+        if (object == null)
+            return -1;
+
+        if (object._pins.get() != 0)
+            return 0;
+
+        return Math.max(0, System.nanoTime() - object._lastAccess);
     }
     //endregion
 
     //region ResultSet Method
-    public static String putResultSet(ResultSetEx resultSetEx) {
-        var id = UUID.randomUUID().toString();
-        _resultSets.put(id, resultSetEx);
+    // The owner is the statement that produced the result set, or the connection for metadata queries
+    public static String putResultSet(String ownerId, ResultSetEx resultSetEx) {
+        return put(_resultSets, resultSetEx, ownerId, false);
+    }
+
+    public static ResultSetEx getResultSet(String resultSetExId) {
+        return (ResultSetEx) get(_resultSets, resultSetExId);
+    }
+
+    public static void closeResultSet(String resultSetExId) throws SQLException {
+        close(_resultSets, resultSetExId);
+    }
+    //endregion
+
+    //region Lob Method
+    // LOBs belong to the result set they were read from, which frees them on close
+    public static String putLob(LobHandle lob) {
+        var id = toId(_lobs.put(lob));
+        lob.setId(id);
 
         return id;
     }
 
-    public static ResultSetEx getResultSet(String resultSetExId) {
-        return _resultSets.get(resultSetExId);
+    public static LobHandle getLob(String lobId) {
+        var lob = _lobs.get(parseHandle(lobId));
+        return lob != null && isSameId(lob.getId(), lobId) ? lob : null;
+    }
+
+    public static LobHandle removeLob(String lobId) {
+        var handle = parseHandle(lobId);
+        var lob = _lobs.get(handle);
+
+        if (lob == null || !isSameId(lob.getId(), lobId))
+            return null;
+
+        return _lobs.remove(handle);
+    }
+    //endregion
+
+    //region Reaper Method
+    // 0 disables the reaper
+    public static synchronized void setIdleTimeout(long seconds) {
+        _idleTimeoutNanos = TimeUnit.SECONDS.toNanos(seconds);
+
+        if (_reaper != null) {
+            _reaper.shutdown();
+            _reaper = null;
+        }
+
+        if (seconds <= 0)
+            return;
+
+        _reaper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "jdbcnet-reaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        var period = Math.max(1, Math.min(seconds / 2, 60));
+        _reaper.scheduleWithFixedDelay(ObjectManager::reapIdle, period, period, TimeUnit.SECONDS);
+    }
+
+    public static long getConnectionCount() {
+        return _connections.size();
     }
 
-    public static void removeResultSet(String resultSetExId) {
-        _resultSets.remove(resultSetExId);
+    public static long getStatementCount() {
+        return _statements.size();
+    }
+
+    public static long getResultSetCount() {
+        return _resultSets.size();
+    }
+
+    public static long getLobCount() {
+        return _lobs.size();
+    }
+
+    public static long getReapedConnections() {
+        return _reapedConnections.sum();
+    }
+
+    public static long getReapedStatements() {
+        return _reapedStatements.sum();
+    }
+
+    public static long getReapedResultSets() {
+        return _reapedResultSets.sum();
+    }
+    //endregion
+
+    //region Private Methods
+    private static String put(HandleTable<ManagedObject> table, Object value, String ownerId, boolean returnsGeneratedKeys) {
+        var owner = ownerId == null ? null : find(ownerId);
+        var object = new ManagedObject(table, value, owner, returnsGeneratedKeys);
+
+        object._handle = table.put(object);
+        object._id = toId(object._handle);
+
+        var pins = CallScope.currentPins();
+
+        if (pins != null) {
+            pins.add(object);
+        }
+
+        if (owner != null) {
+            owner._children.add(object);
+
+            if (table == _resultSets) {
+                owner._currentResultSet = object;
+            }
+
+            // The owner was closed meanwhile, nothing else would close this one
+            if (owner._isClosed) {
+                closeQuietly(object, CloseReason.CLIENT);
+            }
+        }
+
+        return object._id;
+    }
+
+    private static Object get(HandleTable<ManagedObject> table, String id) {
+        var object = resolve(table, id);
+
+        if (object == null)
+            return null;
+
+        var pins = CallScope.currentPins();
+
+        // The reaper already claimed the object or one of its owners
+        if (pins != null && !pins.add(object))
+            return null;
+
+        object.touch();
+
+        var connection = object.getConnection();
+
+        if (connection != null) {
+            TransportTracker.useConnection(connection._id);
+        }
+
+        return object._value;
+    }
+
+    private static void close(HandleTable<ManagedObject> table, String id) throws SQLException {
+        var object = resolve(table, id);
+
+        if (object != null) {
+            close(object, CloseReason.CLIENT);
+        }
+    }
+
+    private static void close(ManagedObject object, CloseReason reason) throws SQLException {
+        // Whoever removes the handle closes the object, so it is closed exactly once
+        if (object._table.remove(object._handle) == null)
+            return;
+
+        object._isClosed = true;
+
+        // Only a connection the client closed itself, with no call still running on it, may be handed out again
+        var isPoolable = reason == CloseReason.CLIENT && object._pins.get() == 0;
+
+        for (var child : object._children) {
+            closeQuietly(child, reason);
+        }
+
+        if (object._owner != null) {
+            object._owner._children.remove(object);
+
+            if (object._owner._currentResultSet == object) {
+                object._owner._currentResultSet = null;
+            }
+        }
+
+        if (reason == CloseReason.REAPED) {
+            if (object._table == _connections) {
+                _reapedConnections.increment();
+            } else if (object._table == _statements) {
+                _reapedStatements.increment();
+            } else {
+                _reapedResultSets.increment();
+            }
+        }
+
+        var value = object._value;
+
+        if (value instanceof ResultSetEx) {
+            ((ResultSetEx) value).close();
+        } else if (value instanceof Statement) {
+            var statement = (Statement) value;
+
+            // A cached prepared statement goes back to its connection's cache instead of being closed
+            if (!(statement instanceof PreparedStatement) || !StatementCache.release((PreparedStatement) statement)) {
+                statement.close();
+            }
+        } else if (value instanceof Connection) {
+            var connection = (Connection) value;
+            StatementCache.removeConnection(object._id);
+
+            if (!isPoolable) {
+                ConnectionPool.forget(connection);
+                connection.close();
+            } else if (!ConnectionPool.release(connection)) {
+                connection.close();
+            }
+        }
+    }
+
+    private static void closeQuietly(ManagedObject object, CloseReason reason) {
+        try {
+            close(object, reason);
+        } catch (SQLException ignored) {
+        }
+    }
+
+    private static void reapIdle() {
+        var deadline = System.nanoTime() - _idleTimeoutNanos;
+
+        // Using or pinning an object also marks its owners, so an idle owner only has idle, unpinned children
+        // and takes them along. Claiming fails while a call holds a pin and keeps new pins out afterwards.
+        for (var table : List.of(_connections, _statements, _resultSets)) {
+            table.forEach(object -> {
+                if (object._lastAccess - deadline < 0 && object.claim()) {
+                    closeQuietly(object, CloseReason.REAPED);
+                }
+            });
+        }
+    }
+
+    private static ManagedObject find(String id) {
+        switch ((int) (parseHandle(id) >>> 56)) {
+            case STATEMENT_TAG:
+                return resolve(_statements, id);
+
+            case CONNECTION_TAG:
+                return resolve(_connections, id);
+
+            case RESULT_SET_TAG:
+                return resolve(_resultSets, id);
+
+            default:
+                return null;
+        }
+    }
+
+    private static ManagedObject resolve(HandleTable<ManagedObject> table, String id) {
+        var object = table.get(parseHandle(id));
+        return object != null && isSameId(object._id, id) ? object : null;
+    }
+
+    // Compares in constant time so the secret can not be found digit by digit
+    private static boolean isSameId(String expected, String id) {
+        return expected != null && MessageDigest.isEqual(expected.getBytes(StandardCharsets.US_ASCII), id.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String toId(long handle) {
+        var chars = new char[ID_LENGTH];
+        writeHex(chars, 0, handle);
+        writeHex(chars, HANDLE_LENGTH, _random.get().nextLong());
+
+        return new String(chars);
+    }
+
+    private static void writeHex(char[] chars, int offset, long value) {
+        for (int i = offset + HANDLE_LENGTH - 1; i >= offset; i--) {
+            chars[i] = HEX_DIGITS[(int) value & 0xF];
+            value >>>= 4;
+        }
+    }
+
+    // Returns 0, which no table hands out, for anything that is not a well-formed id
+    private static long parseHandle(String id) {
+        if (id == null || id.length() != ID_LENGTH)
+            return 0;
+
+        var handle = 0L;
+
+        for (int i = 0; i < HANDLE_LENGTH; i++) {
+            var digit = Character.digit(id.charAt(i), 16);
+
+            if (digit < 0)
+                return 0;
+
+            handle = (handle << 4) | digit;
+        }
+
+        return handle;
+    }
+    //endregion
+
+    //region CloseReason
+    private enum CloseReason {
+        CLIENT,
+        REAPED,
+        ABANDONED
+    }
+    //endregion
+
+    //region ManagedObject
+    static class ManagedObject {
+        //region Fields
+        private final HandleTable<ManagedObject> _table;
+        private final Object _value;
+        private final ManagedObject _owner;
+        private final boolean _returnsGeneratedKeys;
+        private final Set<ManagedObject> _children = ConcurrentHashMap.newKeySet();
+        // Calls holding a pin, -1 once the reaper has claimed the object
+        private final AtomicInteger _pins = new AtomicInteger();
+        private volatile long _handle;
+        private volatile String _id;
+        // Result set registered last for a statement
+        private volatile ManagedObject _currentResultSet;
+        private volatile ParameterTypes _parameterTypes;
+        private volatile long _lastAccess = System.nanoTime();
+        private volatile boolean _isClosed;
+        //endregion
+
+        //region Constructor
+        public ManagedObject(HandleTable<ManagedObject> table, Object value, ManagedObject owner, boolean returnsGeneratedKeys) {
+            _table = table;
+            _value = value;
+            _owner = owner;
+            _returnsGeneratedKeys = returnsGeneratedKeys;
+        }
+        //endregion
+
+        //region Public Methods
+        public void touch() {
+            var now = System.nanoTime();
+
+            for (var object = this; object != null; object = object._owner) {
+                object._lastAccess = now;
+            }
+        }
+
+        // Pins the object and its owners, fails when the reaper has claimed any of them
+        public boolean pin() {
+            for (var object = this; object != null; object = object._owner) {
+                if (!object.tryPin()) {
+                    for (var pinned = this; pinned != object; pinned = pinned._owner) {
+                        pinned._pins.decrementAndGet();
+                    }
+
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        public void unpin() {
+            var now = System.nanoTime();
+
+            for (var object = this; object != null; object = object._owner) {
+                object._pins.decrementAndGet();
+                object._lastAccess = now;
+            }
+        }
+
+        // The connection at the root of the ownership tree, null for objects without one
+        public ManagedObject getConnection() {
+            var object = this;
+
+            while (object._owner != null) {
+                object = object._owner;
+            }
+
+            return object._table == _connections ? object : null;
+        }
+
+        public boolean claim() {
+            return _pins.compareAndSet(0, -1);
+        }
+        //endregion
+
+        //region Private Methods
+        private boolean tryPin() {
+            int count;
+
+            do {
+                count = _pins.get();
+
+                if (count < 0)
+                    return false;
+            } while (!_pins.compareAndSet(count, count + 1));
+
+            return true;
+        }
+        //endregion
     }
     //endregion
 }
@@ -0,0 +1,224 @@
+package com.chequer.jdbcnet.bridge.manager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-connection LRU cache of idle prepared statements, keyed by SQL text, result set type and generated key options.
+ * A cached statement is checked out by {@link #prepare} and comes back on {@link #release} instead of being closed,
+ * so repeated SQL skips the driver's parse. Disabled while the capacity is 0.
+ */
+public class StatementCache {
+    //region Fields
+    private static final ConcurrentHashMap<String, ConnectionCache> _caches = new ConcurrentHashMap<>();
+    private static final Map<PreparedStatement, StatementKey> _checkedOut = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private static final LongAdder _hits = new LongAdder();
+    private static final LongAdder _misses = new LongAdder();
+    private static final LongAdder _evictions = new LongAdder();
+    private static volatile int _capacity;
+    //endregion
+
+    //region Public Methods
+    public static void setCapacity(int capacity) {
+        _capacity = capacity;
+    }
+
+    public static PreparedStatement prepare(String connectionId, Connection connection, String sql, int resultSetType, int resultSetConcurrency,
+                                            boolean returnGeneratedKeys, List<String> keyColumnNames) throws SQLException {
+        if (_capacity <= 0)
+            return createStatement(connection, sql, resultSetType, resultSetConcurrency, returnGeneratedKeys, keyColumnNames);
+
+        var key = new StatementKey(connectionId, sql, resultSetType, resultSetConcurrency, returnGeneratedKeys, keyColumnNames);
+        var statement = _caches.computeIfAbsent(connectionId, id -> new ConnectionCache()).take(key);
+
+        if (statement != null) {
+            _hits.increment();
+        } else {
+            _misses.increment();
+            statement = createStatement(connection, sql, resultSetType, resultSetConcurrency, returnGeneratedKeys, keyColumnNames);
+        }
+
+        _checkedOut.put(statement, key);
+        return statement;
+    }
+
+    // Returns false when the statement is not cacheable, the caller then closes it
+    public static boolean release(PreparedStatement statement) {
+        var key = _checkedOut.remove(statement);
+
+        if (key == null || _capacity <= 0)
+            return false;
+
+        var cache = _caches.get(key._connectionId);
+
+        try {
+            if (cache == null || statement.isClosed())
+                return false;
+
+            statement.clearParameters();
+            statement.clearBatch();
+            statement.clearWarnings();
+        } catch (SQLException e) {
+            return false;
+        }
+
+        cache.put(key, statement);
+        return true;
+    }
+
+    // Closes every idle statement of a connection that is about to be closed
+    public static void removeConnection(String connectionId) {
+        var cache = _caches.remove(connectionId);
+
+        if (cache != null) {
+            cache.close();
+        }
+
+        synchronized (_checkedOut) {
+            _checkedOut.values().removeIf(key -> key._connectionId.equals(connectionId));
+        }
+    }
+
+    public static long getHits() {
+        return _hits.sum();
+    }
+
+    public static long getMisses() {
+        return _misses.sum();
+    }
+
+    public static long getEvictions() {
+        return _evictions.sum();
+    }
+    //endregion
+
+    //region Private Methods
+    private static PreparedStatement createStatement(Connection connection, String sql, int resultSetType, int resultSetConcurrency,
+                                                     boolean returnGeneratedKeys, List<String> keyColumnNames) throws SQLException {
+        if (!keyColumnNames.isEmpty())
+            return connection.prepareStatement(sql, keyColumnNames.toArray(new String[0]));
+
+        if (returnGeneratedKeys)
+            return connection.prepareStatement(sql, java.sql.Statement.RETURN_GENERATED_KEYS);
+
+        return connection.prepareStatement(sql, resultSetType, resultSetConcurrency);
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+        }
+    }
+    //endregion
+
+    //region ConnectionCache
+    private static class ConnectionCache {
+        //region Fields
+        private final LinkedHashMap<StatementKey, PreparedStatement> _statements = new LinkedHashMap<>(16, 0.75f, true);
+        //endregion
+
+        //region Public Methods
+        public synchronized PreparedStatement take(StatementKey key) {
+            return _statements.remove(key);
+        }
+
+        public void put(StatementKey key, PreparedStatement statement) {
+            var evicted = new ArrayList<PreparedStatement>();
+
+            synchronized (this) {
+                var previous = _statements.put(key, statement);
+
+                if (previous != null) {
+                    evicted.add(previous);
+                }
+
+                var iterator = _statements.values().iterator();
+
+                while (_statements.size() > _capacity && iterator.hasNext()) {
+                    evicted.add(iterator.next());
+                    iterator.remove();
+                }
+            }
+
+            // Closing may hit the database, so it happens outside the lock
+            for (var eldest : evicted) {
+                _evictions.increment();
+                closeQuietly(eldest);
+            }
+        }
+
+        public void close() {
+            ArrayList<PreparedStatement> statements;
+
+            synchronized (this) {
+                statements = new ArrayList<>(_statements.values());
+                _statements.clear();
+            }
+
+            for (var statement : statements) {
+                closeQuietly(statement);
+            }
+        }
+        //endregion
+    }
+    //endregion
+
+    //region StatementKey
+    private static class StatementKey {
+        //region Fields
+        private final String _connectionId;
+        private final String _sql;
+        private final int _resultSetType;
+        private final int _resultSetConcurrency;
+        private final boolean _returnGeneratedKeys;
+        private final List<String> _keyColumnNames;
+        //endregion
+
+        //region Constructor
+        public StatementKey(String connectionId, String sql, int resultSetType, int resultSetConcurrency,
+                            boolean returnGeneratedKeys, List<String> keyColumnNames) {
+            _connectionId = connectionId;
+            _sql = sql;
+            _resultSetType = resultSetType;
+            _resultSetConcurrency = resultSetConcurrency;
+            _returnGeneratedKeys = returnGeneratedKeys;
+            _keyColumnNames = keyColumnNames;
+        }
+        //endregion
+
+        //region Object
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof StatementKey))
+                return false;
+
+            var other = (StatementKey) obj;
+
+            return _sql.equals(other._sql)
+                    && _resultSetType == other._resultSetType
+                    && _resultSetConcurrency == other._resultSetConcurrency
+                    && _returnGeneratedKeys == other._returnGeneratedKeys
+                    && _keyColumnNames.equals(other._keyColumnNames)
+                    && _connectionId.equals(other._connectionId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(_connectionId, _sql, _resultSetType, _resultSetConcurrency, _returnGeneratedKeys, _keyColumnNames);
+        }
+        //endregion
+    }
+    //endregion
+}
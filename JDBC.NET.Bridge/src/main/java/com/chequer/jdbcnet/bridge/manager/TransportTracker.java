@@ -0,0 +1,212 @@
+package com.chequer.jdbcnet.bridge.manager;
+
+import io.grpc.Attributes;
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerTransportFilter;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers which client transport opened each connection and closes those connections once the transport goes away,
+ * so a client that crashes or drops its channel does not leave connections, statements and cursors behind.
+ * A connection is kept for a grace period after the disconnect, counted from its last use, so a client that
+ * reconnects can go on with it. A connection belongs to the transport that used it last: once a call on another
+ * transport uses it, it moves over and a pending close is cancelled. Statements and result sets follow their
+ * connection through {@link ObjectManager}.
+ */
+public class TransportTracker extends ServerTransportFilter implements ServerInterceptor {
+    //region Fields
+    public static final TransportTracker INSTANCE = new TransportTracker();
+
+    private static final Attributes.Key<Client> CLIENT_ATTRIBUTE = Attributes.Key.create("jdbcnet-client");
+    private static final Context.Key<Client> CLIENT_KEY = Context.key("jdbcnet-client");
+
+    private static final long RETRY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final LongAdder _closedConnections = new LongAdder();
+    // Guarded by the class lock. Connections of a live transport are in _owners, orphans in _pendingCloses.
+    private static final Map<String, Client> _owners = new HashMap<>();
+    private static final Map<String, ScheduledFuture<?>> _pendingCloses = new HashMap<>();
+    private static final ScheduledExecutorService _scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "jdbcnet-disconnect");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static volatile long _graceNanos = TimeUnit.SECONDS.toNanos(30);
+    //endregion
+
+    //region Public Methods
+    // Ties a connection to the transport of the current call
+    public static void addConnection(String connectionId) {
+        var client = CLIENT_KEY.get();
+
+        if (client != null) {
+            adopt(client, connectionId);
+        }
+    }
+
+    public static synchronized void removeConnection(String connectionId) {
+        var client = _owners.remove(connectionId);
+
+        if (client != null) {
+            client._connectionIds.remove(connectionId);
+        }
+
+        cancelClose(connectionId);
+    }
+
+    // Called on every lookup, moves the connection to the transport of the current call when that is another one
+    public static void useConnection(String connectionId) {
+        var client = CLIENT_KEY.get();
+
+        if (client != null && !client._connectionIds.contains(connectionId)) {
+            adopt(client, connectionId);
+        }
+    }
+
+    // 0 closes the connections as soon as the transport goes away
+    public static void setGracePeriod(long seconds) {
+        _graceNanos = TimeUnit.SECONDS.toNanos(Math.max(0, seconds));
+    }
+
+    public static long getClosedConnections() {
+        return _closedConnections.sum();
+    }
+    //endregion
+
+    //region ServerTransportFilter
+    @Override
+    public Attributes transportReady(Attributes transportAttrs) {
+        return transportAttrs.toBuilder()
+                .set(CLIENT_ATTRIBUTE, new Client())
+                .build();
+    }
+
+    @Override
+    public void transportTerminated(Attributes transportAttrs) {
+        var client = transportAttrs.get(CLIENT_ATTRIBUTE);
+
+        if (client == null)
+            return;
+
+        synchronized (TransportTracker.class) {
+            client._isTerminated = true;
+
+            for (var connectionId : client._connectionIds) {
+                _owners.remove(connectionId);
+                scheduleClose(connectionId, _graceNanos);
+            }
+
+            client._connectionIds.clear();
+        }
+    }
+    //endregion
+
+    //region Private Methods
+    private static synchronized void adopt(Client client, String connectionId) {
+        // A call that outlived its transport can not keep the connection alive
+        if (client._isTerminated)
+            return;
+
+        var previous = _owners.put(connectionId, client);
+
+        if (previous != null && previous != client) {
+            previous._connectionIds.remove(connectionId);
+        }
+
+        client._connectionIds.add(connectionId);
+        cancelClose(connectionId);
+    }
+
+    private static void cancelClose(String connectionId) {
+        var pendingClose = _pendingCloses.remove(connectionId);
+
+        if (pendingClose != null) {
+            pendingClose.cancel(false);
+        }
+    }
+
+    private static synchronized void scheduleClose(String connectionId, long delayNanos) {
+        // Adopted by another transport meanwhile
+        if (_owners.containsKey(connectionId))
+            return;
+
+        // Closing talks to the database, which must not happen on the transport's event loop or the scheduler
+        var pendingClose = _scheduler.schedule(() -> JdbcExecutor.getExecutor().execute(() -> closeOrphan(connectionId)), delayNanos, TimeUnit.NANOSECONDS);
+        var previous = _pendingCloses.put(connectionId, pendingClose);
+
+        if (previous != null) {
+            previous.cancel(false);
+        }
+    }
+
+    private static void closeOrphan(String connectionId) {
+        synchronized (TransportTracker.class) {
+            if (_owners.containsKey(connectionId))
+                return;
+
+            _pendingCloses.remove(connectionId);
+        }
+
+        var idleNanos = ObjectManager.getIdleNanos(connectionId);
+
+        // Closed by the client meanwhile
+        if (idleNanos < 0)
+            return;
+
+        var graceNanos = _graceNanos;
+
+        // Used since the disconnect without a transport to adopt it, so the grace period starts over from that use
+        if (idleNanos < graceNanos) {
+            scheduleClose(connectionId, Math.max(graceNanos - idleNanos, RETRY_NANOS));
+            return;
+        }
+
+        try {
+            if (ObjectManager.abandonConnection(connectionId)) {
+                _closedConnections.increment();
+            } else if (ObjectManager.getIdleNanos(connectionId) >= 0) {
+                // A call started on it just now, if that call adopted it this does nothing
+                scheduleClose(connectionId, Math.max(graceNanos, RETRY_NANOS));
+            }
+        } catch (SQLException ignored) {
+        }
+    }
+    //endregion
+
+    //region ServerInterceptor
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+        var client = call.getAttributes().get(CLIENT_ATTRIBUTE);
+
+        if (client == null)
+            return next.startCall(call, headers);
+
+        return Contexts.interceptCall(Context.current().withValue(CLIENT_KEY, client), call, headers, next);
+    }
+    //endregion
+
+    //region Client
+    private static class Client {
+        //region Fields
+        private final Set<String> _connectionIds = ConcurrentHashMap.newKeySet();
+        private boolean _isTerminated;
+        //endregion
+    }
+    //endregion
+}
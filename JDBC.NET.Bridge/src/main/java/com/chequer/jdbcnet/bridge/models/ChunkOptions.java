@@ -0,0 +1,44 @@
+package com.chequer.jdbcnet.bridge.models;
+
+import proto.reader.Reader;
+
+public class ChunkOptions {
+    //region Fields
+    private final int _chunkSize;
+    private final Reader.ChunkFormat _format;
+    private final Reader.ChunkCompression _compression;
+    private final long _lobThreshold;
+    //endregion
+
+    //region Constructor
+    public ChunkOptions(int chunkSize, Reader.ChunkFormat format, Reader.ChunkCompression compression, long lobThreshold) {
+        _chunkSize = chunkSize;
+        _format = format;
+        _compression = compression;
+        _lobThreshold = lobThreshold;
+    }
+    //endregion
+
+    //region Public Methods
+    public int getChunkSize() {
+        return _chunkSize;
+    }
+
+    public Reader.ChunkFormat getFormat() {
+        return _format;
+    }
+
+    public Reader.ChunkCompression getCompression() {
+        return _compression;
+    }
+
+    // Blob and Clob values longer than this are sent as handles, 0 inlines every value
+    public long getLobThreshold() {
+        return _lobThreshold;
+    }
+
+    public static ChunkOptions from(Reader.ReadResultSetRequest request) {
+        return new ChunkOptions(request.getChunkSize(), request.getFormat(), request.getCompression(), request.getLobThreshold());
+    }
+    //endregion
+}
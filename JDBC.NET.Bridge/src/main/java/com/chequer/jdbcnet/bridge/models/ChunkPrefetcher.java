@@ -0,0 +1,226 @@
+package com.chequer.jdbcnet.bridge.models;
+
+import com.chequer.jdbcnet.bridge.manager.AdmissionControl;
+
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fetches and encodes chunks of a result set on a background thread, ahead of the reader.
+ * The queue is bounded by chunk count and by encoded bytes. Once started, only the producer touches the result set.
+ * Producers run on a bounded pool without a queue. When every thread is busy the prefetcher does not start
+ * and the reader fetches on its own thread instead.
+ */
+public class ChunkPrefetcher implements Runnable {
+    //region Fields
+    private static final AtomicInteger _threadNumber = new AtomicInteger();
+    private static final LongAdder _rejected = new LongAdder();
+    private static volatile int _threads = 32;
+    private static ThreadPoolExecutor _executor;
+
+    private final ResultSetEx _resultSet;
+    private final ChunkOptions _options;
+    private final int _depth;
+    private final long _byteBudget;
+    private final ArrayDeque<ResultSetChunk> _chunks = new ArrayDeque<>();
+
+    private long _queuedBytes;
+    private boolean _isFinished;
+    // Volatile so the producer can see it while waiting for chunk memory, without taking this monitor
+    private volatile boolean _isClosed;
+    private Throwable _error;
+    private Runnable _listener;
+    private Future<?> _future;
+    //endregion
+
+    //region Constructor
+    public ChunkPrefetcher(ResultSetEx resultSet, ChunkOptions options, int depth, long byteBudget) {
+        _resultSet = resultSet;
+        _options = options;
+        _depth = Math.max(1, depth);
+        _byteBudget = byteBudget > 0 ? byteBudget : Long.MAX_VALUE;
+    }
+    //endregion
+
+    //region Public Methods
+    public static void setThreads(int threads) {
+        _threads = threads;
+    }
+
+    public static long getActiveCount() {
+        var executor = _executor;
+        return executor == null ? 0 : executor.getActiveCount();
+    }
+
+    public static long getRejectedCount() {
+        return _rejected.sum();
+    }
+
+    // Returns false when no prefetch thread is free, nothing has run then
+    public synchronized boolean start() {
+        if (_future != null)
+            return true;
+
+        try {
+            _future = getExecutor().submit(this);
+            return true;
+        } catch (RejectedExecutionException e) {
+            _rejected.increment();
+            return false;
+        }
+    }
+
+    public synchronized ResultSetChunk take() throws SQLException, InterruptedException {
+        while (_chunks.isEmpty() && !_isFinished && !_isClosed) {
+            wait();
+        }
+
+        return dequeue();
+    }
+
+    // Returns null when no chunk is ready yet; the listener is then run once by the producer thread
+    // as soon as the next chunk (or an error) is available.
+    public synchronized ResultSetChunk poll(Runnable listener) throws SQLException {
+        if (_chunks.isEmpty() && !_isFinished && !_isClosed) {
+            _listener = listener;
+            return null;
+        }
+
+        return dequeue();
+    }
+
+    public void close() {
+        Future<?> future;
+
+        synchronized (this) {
+            if (_isClosed)
+                return;
+
+            _isClosed = true;
+            _listener = null;
+            future = _future;
+
+            while (!_chunks.isEmpty()) {
+                _chunks.poll().release();
+            }
+
+            _queuedBytes = 0;
+            notifyAll();
+        }
+
+        // Wait for an in-flight fetch so the result set is never closed under the producer
+        if (future != null) {
+            try {
+                future.get();
+            } catch (Exception ignored) {
+            }
+        }
+    }
+    //endregion
+
+    //region Runnable
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                synchronized (this) {
+                    while (!_isClosed && (_chunks.size() >= _depth || (!_chunks.isEmpty() && _queuedBytes >= _byteBudget))) {
+                        wait();
+                    }
+
+                    if (_isClosed)
+                        return;
+                }
+
+                // No deadline here: a slow reader must not kill the cursor, only close stops the wait
+                if (!AdmissionControl.awaitChunkBudget(() -> _isClosed))
+                    return;
+
+                var chunk = _resultSet.readChunk(_options);
+                Runnable listener;
+
+                synchronized (this) {
+                    if (_isClosed) {
+                        chunk.release();
+                        return;
+                    }
+
+                    _chunks.add(chunk);
+                    _queuedBytes += chunk.getSize();
+                    _isFinished = chunk.isCompleted();
+
+                    listener = _listener;
+                    _listener = null;
+                    notifyAll();
+                }
+
+                if (listener != null) {
+                    listener.run();
+                }
+
+                if (chunk.isCompleted())
+                    return;
+            }
+        } catch (Throwable e) {
+            Runnable listener;
+
+            synchronized (this) {
+                _error = e;
+                _isFinished = true;
+
+                listener = _listener;
+                _listener = null;
+                notifyAll();
+            }
+
+            if (listener != null) {
+                listener.run();
+            }
+        }
+    }
+    //endregion
+
+    //region Private Methods
+    private static synchronized ThreadPoolExecutor getExecutor() {
+        if (_executor == null) {
+            _executor = new ThreadPoolExecutor(0, Math.max(1, _threads), 60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+                var thread = new Thread(runnable, "jdbcnet-prefetch-" + _threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        return _executor;
+    }
+
+    private ResultSetChunk dequeue() throws SQLException {
+        var chunk = _chunks.poll();
+
+        if (chunk != null) {
+            _queuedBytes -= chunk.getSize();
+            notifyAll();
+            return chunk;
+        }
+
+        if (_error != null) {
+            if (_error instanceof SQLException)
+                throw (SQLException) _error;
+
+            // Keeps a gRPC status such as RESOURCE_EXHAUSTED intact
+            if (_error instanceof RuntimeException)
+                throw (RuntimeException) _error;
+
+            throw new SQLException(_error.getMessage(), _error);
+        }
+
+        throw new SQLException("ResultSet is closed");
+    }
+    //endregion
+}
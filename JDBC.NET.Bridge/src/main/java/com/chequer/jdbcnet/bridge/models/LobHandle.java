@@ -0,0 +1,63 @@
+package com.chequer.jdbcnet.bridge.models;
+
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.SQLException;
+
+/**
+ * A Blob or Clob left on the bridge. Rows only carry its id and length, the value is pulled with readLob.
+ * Offsets and lengths count bytes for a Blob and characters for a Clob.
+ */
+public class LobHandle {
+    //region Fields
+    private final Object _lob;
+    private final long _length;
+    private String _id;
+    //endregion
+
+    //region Constructor
+    public LobHandle(Blob blob) throws SQLException {
+        _lob = blob;
+        _length = blob.length();
+    }
+
+    public LobHandle(Clob clob) throws SQLException {
+        _lob = clob;
+        _length = clob.length();
+    }
+    //endregion
+
+    //region Public Methods
+    public String getId() {
+        return _id;
+    }
+
+    public void setId(String id) {
+        _id = id;
+    }
+
+    public boolean isClob() {
+        return _lob instanceof Clob;
+    }
+
+    public long getLength() {
+        return _length;
+    }
+
+    public byte[] getBytes(long offset, int length) throws SQLException {
+        return ((Blob) _lob).getBytes(offset + 1, length);
+    }
+
+    public String getSubString(long offset, int length) throws SQLException {
+        return ((Clob) _lob).getSubString(offset + 1, length);
+    }
+
+    public void free() throws SQLException {
+        if (_lob instanceof Clob) {
+            ((Clob) _lob).free();
+        } else {
+            ((Blob) _lob).free();
+        }
+    }
+    //endregion
+}
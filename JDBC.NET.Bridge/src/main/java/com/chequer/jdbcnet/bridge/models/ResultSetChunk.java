@@ -0,0 +1,82 @@
+package com.chequer.jdbcnet.bridge.models;
+
+import com.chequer.jdbcnet.bridge.manager.AdmissionControl;
+import com.chequer.jdbcnet.bridge.manager.ChunkBufferPool;
+import io.grpc.netty.shaded.io.netty.buffer.ByteBuf;
+import proto.reader.Reader;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ResultSetChunk {
+    //region Fields
+    private final ByteBuf _rows;
+    private final Reader.ChunkFormat _format;
+    private final Reader.ChunkCompression _compression;
+    private final int _uncompressedSize;
+    private final boolean _isCompleted;
+    private final AtomicInteger _references = new AtomicInteger(1);
+    private long _reservedBytes;
+    //endregion
+
+    //region Constructor
+    public ResultSetChunk(ByteBuf rows, Reader.ChunkFormat format, boolean isCompleted) {
+        this(rows, format, Reader.ChunkCompression.UNCOMPRESSED, rows.readableBytes(), isCompleted);
+    }
+
+    public ResultSetChunk(ByteBuf rows, Reader.ChunkFormat format, Reader.ChunkCompression compression, int uncompressedSize, boolean isCompleted) {
+        _rows = rows;
+        _format = format;
+        _compression = compression;
+        _uncompressedSize = uncompressedSize;
+        _isCompleted = isCompleted;
+    }
+    //endregion
+
+    //region Public Methods
+    public ByteBuf getRows() {
+        return _rows;
+    }
+
+    public Reader.ChunkFormat getFormat() {
+        return _format;
+    }
+
+    public Reader.ChunkCompression getCompression() {
+        return _compression;
+    }
+
+    public int getUncompressedSize() {
+        return _uncompressedSize;
+    }
+
+    public boolean isCompleted() {
+        return _isCompleted;
+    }
+
+    public int getSize() {
+        return _rows.readableBytes();
+    }
+
+    // Counts the rows buffer against the in-flight chunk budget until the last reference is released
+    public ResultSetChunk reserve() {
+        _reservedBytes = _rows.capacity();
+        AdmissionControl.addChunkBytes(_reservedBytes);
+        return this;
+    }
+
+    // Adds a reference to the rows buffer, each reference is dropped by one release()
+    public ResultSetChunk retain() {
+        _references.incrementAndGet();
+        _rows.retain();
+        return this;
+    }
+
+    public void release() {
+        ChunkBufferPool.recycle(_rows);
+
+        if (_references.decrementAndGet() == 0 && _reservedBytes > 0) {
+            AdmissionControl.releaseChunkBytes(_reservedBytes);
+        }
+    }
+    //endregion
+}
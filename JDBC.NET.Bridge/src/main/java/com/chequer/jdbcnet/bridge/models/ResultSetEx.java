@@ -1,10 +1,24 @@
 package com.chequer.jdbcnet.bridge.models;
 
+import com.chequer.jdbcnet.bridge.codec.ArrowEncoder;
+import com.chequer.jdbcnet.bridge.codec.ChunkCompressor;
+import com.chequer.jdbcnet.bridge.codec.ChunkEncoder;
+import com.chequer.jdbcnet.bridge.codec.ColumnarEncoder;
+import com.chequer.jdbcnet.bridge.codec.RowEncoder;
+import com.chequer.jdbcnet.bridge.manager.AdmissionControl;
+import com.chequer.jdbcnet.bridge.manager.ChunkBufferPool;
+import com.chequer.jdbcnet.bridge.manager.ObjectManager;
+import io.grpc.netty.shaded.io.netty.buffer.ByteBuf;
+import proto.reader.Reader.ChunkCompression;
+import proto.reader.Reader.ChunkFormat;
+
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.math.BigDecimal;
 import java.net.URL;
 import java.sql.*;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Map;
 
@@ -12,17 +26,49 @@ public class ResultSetEx implements ResultSet {
     //region Fields
     private boolean _hasRows;
     private ResultSet _resultSet;
+    private RowEncoder _rowEncoder;
+    private ColumnarEncoder _columnarEncoder;
+    private ArrowEncoder _arrowEncoder;
+    private ChunkCompressor _compressor;
+    private ChunkPrefetcher _prefetcher;
+    private long _lobThreshold;
+    private LobKind[] _lobKinds;
+    private AdmissionControl.ResultSetSlot _slot;
+    private final ArrayList<String> _lobIds = new ArrayList<>();
     //endregion
 
     //region ResultSet
     @Override
     public boolean next() throws SQLException {
-        return _resultSet.next();
+        _hasRows = _resultSet.next();
+        return _hasRows;
     }
 
     @Override
     public void close() throws SQLException {
-        _resultSet.close();
+        stopPrefetch();
+
+        if (_rowEncoder != null) {
+            _rowEncoder.release();
+        }
+
+        if (_columnarEncoder != null) {
+            _columnarEncoder.release();
+        }
+
+        if (_arrowEncoder != null) {
+            _arrowEncoder.release();
+        }
+
+        freeLobs();
+
+        try {
+            _resultSet.close();
+        } finally {
+            if (_slot != null) {
+                _slot.close();
+            }
+        }
     }
 
     @Override
@@ -216,7 +262,19 @@ public class ResultSetEx implements ResultSet {
 
     @Override
     public Object getObject(final int columnIndex) throws SQLException {
-        return _resultSet.getObject(columnIndex);
+        if (_lobThreshold > 0) {
+            var kind = getLobKinds()[columnIndex - 1];
+
+            if (kind != LobKind.NONE)
+                return getLob(columnIndex, kind);
+        }
+
+        var value = _resultSet.getObject(columnIndex);
+
+        if (_lobThreshold > 0 && (value instanceof Blob || value instanceof Clob))
+            return toLobHandle(value);
+
+        return value;
     }
 
     @Override
@@ -1012,5 +1070,230 @@ public class ResultSetEx implements ResultSet {
     public boolean getHasRows() {
         return _hasRows;
     }
+
+    public RowEncoder getRowEncoder() throws SQLException {
+        if (_rowEncoder == null) {
+            _rowEncoder = new RowEncoder(_resultSet.getMetaData());
+        }
+
+        return _rowEncoder;
+    }
+
+    // Ties an open result set slot to this result set, it is given back on close
+    public void setSlot(AdmissionControl.ResultSetSlot slot) {
+        _slot = slot;
+    }
+
+    // Callers reading on behalf of a call check the chunk budget first, see AdmissionControl
+    public ResultSetChunk readChunk(ChunkOptions options) throws SQLException, IOException {
+        var encoder = getChunkEncoder(options.getFormat());
+
+        // Arrow columns are typed, so LOB handles only go into row and columnar chunks
+        _lobThreshold = options.getFormat() == ChunkFormat.ARROW ? 0 : options.getLobThreshold();
+
+        try {
+            var start = System.currentTimeMillis();
+
+            while (_hasRows) {
+                encoder.encode(this);
+
+                if (!next()) {
+                    break;
+                }
+
+                if (System.currentTimeMillis() - start >= 1000 || encoder.getSize() >= options.getChunkSize()) {
+                    return createChunk(encoder, options, false);
+                }
+            }
+
+            return createChunk(encoder, options, true);
+        } catch (Throwable e) {
+            encoder.release();
+            throw e;
+        }
+    }
+
+    public ResultSetChunk nextChunk(ChunkOptions options) throws SQLException, IOException, InterruptedException {
+        var prefetcher = getPrefetcher();
+
+        if (prefetcher != null)
+            return prefetcher.take();
+
+        AdmissionControl.awaitChunkBudget();
+        return readChunk(options);
+    }
+
+    public ResultSetChunk pollChunk(ChunkOptions options, Runnable listener) throws SQLException, IOException {
+        var prefetcher = getPrefetcher();
+
+        if (prefetcher != null)
+            return prefetcher.poll(listener);
+
+        AdmissionControl.awaitChunkBudget();
+        return readChunk(options);
+    }
+
+    public synchronized void startPrefetch(ChunkOptions options, int depth, long byteBudget) {
+        if (_prefetcher != null || !_hasRows)
+            return;
+
+        var prefetcher = new ChunkPrefetcher(this, options, depth, byteBudget);
+
+        // Every prefetch thread is busy, chunks are read on demand instead
+        if (prefetcher.start()) {
+            _prefetcher = prefetcher;
+        }
+    }
+
+    public boolean isPrefetching() {
+        return getPrefetcher() != null;
+    }
+
+    public void stopPrefetch() {
+        ChunkPrefetcher prefetcher;
+
+        synchronized (this) {
+            prefetcher = _prefetcher;
+        }
+
+        if (prefetcher != null) {
+            prefetcher.close();
+        }
+    }
+    //endregion
+
+    //region Private Methods
+    // Routed by JDBC type: many drivers return a String or byte[] from getObject for LOB columns
+    private LobKind[] getLobKinds() throws SQLException {
+        if (_lobKinds == null) {
+            var metaData = _resultSet.getMetaData();
+            var lobKinds = new LobKind[metaData.getColumnCount()];
+
+            for (int i = 0; i < lobKinds.length; i++) {
+                switch (metaData.getColumnType(i + 1)) {
+                    case Types.CLOB:
+                    case Types.NCLOB:
+                    case Types.LONGVARCHAR:
+                    case Types.LONGNVARCHAR:
+                        lobKinds[i] = LobKind.CLOB;
+                        break;
+
+                    case Types.BLOB:
+                    case Types.LONGVARBINARY:
+                        lobKinds[i] = LobKind.BLOB;
+                        break;
+
+                    default:
+                        lobKinds[i] = LobKind.NONE;
+                        break;
+                }
+            }
+
+            _lobKinds = lobKinds;
+        }
+
+        return _lobKinds;
+    }
+
+    private Object getLob(int columnIndex, LobKind kind) throws SQLException {
+        Object lob;
+
+        try {
+            lob = kind == LobKind.CLOB ? _resultSet.getClob(columnIndex) : _resultSet.getBlob(columnIndex);
+        } catch (SQLException e) {
+            // Not every driver hands out a locator for LONGVARCHAR/LONGVARBINARY, the value is then read as is
+            var value = _resultSet.getObject(columnIndex);
+            return value instanceof Blob || value instanceof Clob ? toLobHandle(value) : value;
+        }
+
+        return lob == null ? null : toLobHandle(lob);
+    }
+
+    private Object toLobHandle(Object value) throws SQLException {
+        var lob = value instanceof Clob ? new LobHandle((Clob) value) : new LobHandle((Blob) value);
+
+        if (lob.getLength() <= _lobThreshold)
+            return value;
+
+        _lobIds.add(ObjectManager.putLob(lob));
+        return lob;
+    }
+
+    // Handles stay valid until the result set is closed, unless the client frees them earlier
+    private void freeLobs() {
+        for (var lobId : _lobIds) {
+            var lob = ObjectManager.removeLob(lobId);
+
+            if (lob == null)
+                continue;
+
+            try {
+                lob.free();
+            } catch (Throwable ignored) {
+            }
+        }
+
+        _lobIds.clear();
+    }
+
+    private synchronized ChunkPrefetcher getPrefetcher() {
+        return _prefetcher;
+    }
+
+    private ResultSetChunk createChunk(ChunkEncoder encoder, ChunkOptions options, boolean isCompleted) {
+        var rows = encoder.finish(isCompleted);
+
+        if (options.getCompression() == ChunkCompression.LZ4 || options.getCompression() == ChunkCompression.ZSTD) {
+            if (_compressor == null || _compressor.getCompression() != options.getCompression()) {
+                _compressor = new ChunkCompressor(options.getCompression());
+            }
+
+            ByteBuf compressed;
+
+            try {
+                compressed = _compressor.compress(rows);
+            } catch (Throwable e) {
+                ChunkBufferPool.recycle(rows);
+                throw e;
+            }
+
+            if (compressed != null) {
+                var uncompressedSize = rows.readableBytes();
+                ChunkBufferPool.recycle(rows);
+
+                return new ResultSetChunk(compressed, options.getFormat(), options.getCompression(), uncompressedSize, isCompleted).reserve();
+            }
+        }
+
+        return new ResultSetChunk(rows, options.getFormat(), isCompleted).reserve();
+    }
+
+    private ChunkEncoder getChunkEncoder(ChunkFormat format) throws SQLException {
+        if (format == ChunkFormat.COLUMNAR) {
+            if (_columnarEncoder == null) {
+                _columnarEncoder = new ColumnarEncoder(_resultSet.getMetaData());
+            }
+
+            return _columnarEncoder;
+        }
+
+        if (format == ChunkFormat.ARROW) {
+            if (_arrowEncoder == null) {
+                _arrowEncoder = new ArrowEncoder(_resultSet.getMetaData());
+            }
+
+            return _arrowEncoder;
+        }
+
+        return getRowEncoder();
+    }
+    //endregion
+
+    //region LobKind
+    private enum LobKind {
+        NONE,
+        CLOB,
+        BLOB
+    }
     //endregion
 }
@@ -0,0 +1,58 @@
+package com.chequer.jdbcnet.bridge.service;
+
+import com.chequer.jdbcnet.bridge.manager.AdmissionControl;
+import com.chequer.jdbcnet.bridge.manager.ChunkBufferPool;
+import com.chequer.jdbcnet.bridge.manager.ConnectionPool;
+import com.chequer.jdbcnet.bridge.manager.JdbcExecutor;
+import com.chequer.jdbcnet.bridge.manager.ObjectManager;
+import com.chequer.jdbcnet.bridge.manager.StatementCache;
+import com.chequer.jdbcnet.bridge.manager.TransportTracker;
+import com.chequer.jdbcnet.bridge.models.ChunkPrefetcher;
+import com.chequer.jdbcnet.bridge.utils.Utils;
+import com.google.protobuf.Empty;
+import io.grpc.stub.StreamObserver;
+import proto.bridge.Bridge;
+import proto.bridge.BridgeServiceGrpc;
+
+public class BridgeServiceImpl extends BridgeServiceGrpc.BridgeServiceImplBase {
+    @Override
+    public void getStatistics(Empty request, StreamObserver<Bridge.GetStatisticsResponse> responseObserver) {
+        try {
+            var response = Bridge.GetStatisticsResponse.newBuilder()
+                    .putCounters("chunkBufferPool.hits", ChunkBufferPool.getHits())
+                    .putCounters("chunkBufferPool.misses", ChunkBufferPool.getMisses())
+                    .putCounters("chunkBufferPool.discards", ChunkBufferPool.getDiscards())
+                    .putCounters("chunkBufferPool.pooledBytes", ChunkBufferPool.getPooledBytes())
+                    .putCounters("statementCache.hits", StatementCache.getHits())
+                    .putCounters("statementCache.misses", StatementCache.getMisses())
+                    .putCounters("statementCache.evictions", StatementCache.getEvictions())
+                    .putCounters("jdbcExecutor.active", JdbcExecutor.getActiveCount())
+                    .putCounters("jdbcExecutor.queued", JdbcExecutor.getQueuedCount())
+                    .putCounters("jdbcExecutor.rejected", JdbcExecutor.getRejectedCount())
+                    .putCounters("prefetch.active", ChunkPrefetcher.getActiveCount())
+                    .putCounters("prefetch.rejected", ChunkPrefetcher.getRejectedCount())
+                    .putCounters("connectionPool.hits", ConnectionPool.getHits())
+                    .putCounters("connectionPool.misses", ConnectionPool.getMisses())
+                    .putCounters("connectionPool.invalidated", ConnectionPool.getInvalidated())
+                    .putCounters("connectionPool.evictions", ConnectionPool.getEvictions())
+                    .putCounters("connectionPool.idle", ConnectionPool.getIdleCount())
+                    .putCounters("objects.connections", ObjectManager.getConnectionCount())
+                    .putCounters("objects.statements", ObjectManager.getStatementCount())
+                    .putCounters("objects.resultSets", ObjectManager.getResultSetCount())
+                    .putCounters("objects.lobs", ObjectManager.getLobCount())
+                    .putCounters("reaper.connections", ObjectManager.getReapedConnections())
+                    .putCounters("reaper.statements", ObjectManager.getReapedStatements())
+                    .putCounters("reaper.resultSets", ObjectManager.getReapedResultSets())
+                    .putCounters("transport.closedConnections", TransportTracker.getClosedConnections())
+                    .putCounters("admission.chunkBytes", AdmissionControl.getChunkBytes())
+                    .putCounters("admission.queuedExecutions", AdmissionControl.getQueuedExecutions())
+                    .putCounters("admission.openResultSets", AdmissionControl.getOpenResultSets())
+                    .build();
+
+            responseObserver.onNext(response);
+            responseObserver.onCompleted();
+        } catch (Throwable e) {
+            responseObserver.onError(Utils.toStatusException(e));
+        }
+    }
+}
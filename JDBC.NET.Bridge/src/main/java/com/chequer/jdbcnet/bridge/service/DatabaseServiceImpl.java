@@ -1,29 +1,25 @@
 package com.chequer.jdbcnet.bridge.service;
 
+import com.chequer.jdbcnet.bridge.manager.ConnectionPool;
 import com.chequer.jdbcnet.bridge.manager.ObjectManager;
+import com.chequer.jdbcnet.bridge.manager.TransportTracker;
+import com.chequer.jdbcnet.bridge.utils.Utils;
 import com.google.protobuf.Empty;
-import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
 import proto.database.Database;
 import proto.database.DatabaseServiceGrpc;
 
-import java.sql.DriverManager;
 import java.util.Optional;
-import java.util.Properties;
 
 public class DatabaseServiceImpl extends DatabaseServiceGrpc.DatabaseServiceImplBase {
     @Override
     public void openConnection(Database.OpenConnectionRequest request, StreamObserver<Database.OpenConnectionResponse> responseObserver) {
         try {
-            var properties = new Properties();
-            var propertiesMap = request.getPropertiesMap();
-
-            properties.putAll(propertiesMap);
-
-            var connection = DriverManager.getConnection(request.getJdbcUrl(), properties);
+            var connection = ConnectionPool.acquire(request.getJdbcUrl(), request.getPropertiesMap());
             connection.setAutoCommit(true);
 
             var connectionId = ObjectManager.putConnection(connection);
+            TransportTracker.addConnection(connectionId);
             var metaData = connection.getMetaData();
 
             var response = Database.OpenConnectionResponse.newBuilder()
@@ -38,19 +34,15 @@ public class DatabaseServiceImpl extends DatabaseServiceGrpc.DatabaseServiceImpl
             responseObserver.onNext(response);
             responseObserver.onCompleted();
         } catch (Throwable e) {
-            responseObserver.onError(Status.INTERNAL
-                    .withDescription(e.getMessage())
-                    .asRuntimeException());
+            responseObserver.onError(Utils.toStatusException(e));
         }
     }
 
     @Override
     public void closeConnection(Database.CloseConnectionRequest request, StreamObserver<Empty> responseObserver) {
         try {
-            var connection = ObjectManager.getConnection(request.getConnectionId());
-            connection.close();
-
-            ObjectManager.removeConnection(request.getConnectionId());
+            ObjectManager.closeConnection(request.getConnectionId());
+            TransportTracker.removeConnection(request.getConnectionId());
 
             var response = Empty.newBuilder()
                     .build();
@@ -58,9 +50,7 @@ public class DatabaseServiceImpl extends DatabaseServiceGrpc.DatabaseServiceImpl
             responseObserver.onNext(response);
             responseObserver.onCompleted();
         } catch (Throwable e) {
-            responseObserver.onError(Status.INTERNAL
-                    .withDescription(e.getMessage())
-                    .asRuntimeException());
+            responseObserver.onError(Utils.toStatusException(e));
         }
     }
 
@@ -76,9 +66,7 @@ public class DatabaseServiceImpl extends DatabaseServiceGrpc.DatabaseServiceImpl
             responseObserver.onNext(response);
             responseObserver.onCompleted();
         } catch (Throwable e) {
-            responseObserver.onError(Status.INTERNAL
-                    .withDescription(e.getMessage())
-                    .asRuntimeException());
+            responseObserver.onError(Utils.toStatusException(e));
         }
     }
 
@@ -94,9 +82,7 @@ public class DatabaseServiceImpl extends DatabaseServiceGrpc.DatabaseServiceImpl
             responseObserver.onNext(response);
             responseObserver.onCompleted();
         } catch (Throwable e) {
-            responseObserver.onError(Status.INTERNAL
-                    .withDescription(e.getMessage())
-                    .asRuntimeException());
+            responseObserver.onError(Utils.toStatusException(e));
         }
     }
 
@@ -112,9 +98,7 @@ public class DatabaseServiceImpl extends DatabaseServiceGrpc.DatabaseServiceImpl
             responseObserver.onNext(response);
             responseObserver.onCompleted();
         } catch (Throwable e) {
-            responseObserver.onError(Status.INTERNAL
-                    .withDescription(e.getMessage())
-                    .asRuntimeException());
+            responseObserver.onError(Utils.toStatusException(e));
         }
     }
 
@@ -131,9 +115,7 @@ public class DatabaseServiceImpl extends DatabaseServiceGrpc.DatabaseServiceImpl
             responseObserver.onNext(response);
             responseObserver.onCompleted();
         } catch (Throwable e) {
-            responseObserver.onError(Status.INTERNAL
-                    .withDescription(e.getMessage())
-                    .asRuntimeException());
+            responseObserver.onError(Utils.toStatusException(e));
         }
     }
 
@@ -149,9 +131,7 @@ public class DatabaseServiceImpl extends DatabaseServiceGrpc.DatabaseServiceImpl
             responseObserver.onNext(response);
             responseObserver.onCompleted();
         } catch (Throwable e) {
-            responseObserver.onError(Status.INTERNAL
-                    .withDescription(e.getMessage())
-                    .asRuntimeException());
+            responseObserver.onError(Utils.toStatusException(e));
         }
     }
 
@@ -167,9 +147,7 @@ public class DatabaseServiceImpl extends DatabaseServiceGrpc.DatabaseServiceImpl
             responseObserver.onNext(response);
             responseObserver.onCompleted();
         } catch (Throwable e) {
-            responseObserver.onError(Status.INTERNAL
-                    .withDescription(e.getMessage())
-                    .asRuntimeException());
+            responseObserver.onError(Utils.toStatusException(e));
         }
     }
 }
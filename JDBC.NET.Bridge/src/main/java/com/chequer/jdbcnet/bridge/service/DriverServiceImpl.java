@@ -1,6 +1,6 @@
 package com.chequer.jdbcnet.bridge.service;
 
-import io.grpc.Status;
+import com.chequer.jdbcnet.bridge.utils.Utils;
 import io.grpc.stub.StreamObserver;
 import proto.driver.Driver;
 import proto.driver.DriverServiceGrpc;
@@ -24,9 +24,7 @@ public class DriverServiceImpl extends DriverServiceGrpc.DriverServiceImplBase {
             responseObserver.onNext(response);
             responseObserver.onCompleted();
         } catch (Throwable e) {
-            responseObserver.onError(Status.INTERNAL
-                    .withDescription(e.getMessage())
-                    .asRuntimeException());
+            responseObserver.onError(Utils.toStatusException(e));
         }
     }
 
@@ -1,11 +1,11 @@
 package com.chequer.jdbcnet.bridge.service;
 
+import com.chequer.jdbcnet.bridge.manager.AdmissionControl;
 import com.chequer.jdbcnet.bridge.manager.ObjectManager;
 import com.chequer.jdbcnet.bridge.models.ResultSetEx;
 import com.chequer.jdbcnet.bridge.utils.Utils;
 import com.google.common.base.Strings;
 import com.google.protobuf.BoolValue;
-import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
 import proto.Common;
 import proto.metadata.MetaDataServiceGrpc;
@@ -15,7 +15,7 @@ public class MetaDataServiceImpl extends MetaDataServiceGrpc.MetaDataServiceImpl
     //region ResultSet Method
     @Override
     public void getTables(Metadata.GetTablesRequest request, StreamObserver<Common.JdbcResultSetResponse> responseObserver) {
-        try {
+        try (var slot = AdmissionControl.reserveResultSet()) {
             var metaData = ObjectManager.getConnection(request.getConnectionId()).getMetaData();
 
             var resultSet = new ResultSetEx(metaData.getTables(
@@ -24,7 +24,8 @@ public class MetaDataServiceImpl extends MetaDataServiceGrpc.MetaDataServiceImpl
                     Strings.emptyToNull(request.getTableNamePattern()),
                     Utils.emptyArrayToNull(request.getTypesList().toArray(new String[0]))));
 
-            var resultSetId = ObjectManager.putResultSet(resultSet);
+            resultSet.setSlot(slot.detach());
+            var resultSetId = ObjectManager.putResultSet(request.getConnectionId(), resultSet);
 
             var responseBuilder = Common.JdbcResultSetResponse.newBuilder()
                     .setResultSetId(resultSetId)
@@ -34,19 +35,18 @@ public class MetaDataServiceImpl extends MetaDataServiceGrpc.MetaDataServiceImpl
             responseObserver.onNext(responseBuilder.build());
             responseObserver.onCompleted();
         } catch (Throwable e) {
-            responseObserver.onError(Status.INTERNAL
-                    .withDescription(e.getMessage())
-                    .asRuntimeException());
+            responseObserver.onError(Utils.toStatusException(e));
         }
     }
 
     @Override
     public void getCatalogs(Metadata.GetMetaDataRequest request, StreamObserver<Common.JdbcResultSetResponse> responseObserver) {
-        try {
+        try (var slot = AdmissionControl.reserveResultSet()) {
             var metaData = ObjectManager.getConnection(request.getConnectionId()).getMetaData();
 
             var resultSet = new ResultSetEx(metaData.getCatalogs());
-            var resultSetId = ObjectManager.putResultSet(resultSet);
+            resultSet.setSlot(slot.detach());
+            var resultSetId = ObjectManager.putResultSet(request.getConnectionId(), resultSet);
 
             var responseBuilder = Common.JdbcResultSetResponse.newBuilder()
                     .setResultSetId(resultSetId)
@@ -56,15 +56,13 @@ public class MetaDataServiceImpl extends MetaDataServiceGrpc.MetaDataServiceImpl
             responseObserver.onNext(responseBuilder.build());
             responseObserver.onCompleted();
         } catch (Throwable e) {
-            responseObserver.onError(Status.INTERNAL
-                    .withDescription(e.getMessage())
-                    .asRuntimeException());
+            responseObserver.onError(Utils.toStatusException(e));
         }
     }
 
     @Override
     public void getProcedures(Metadata.GetProceduresRequest request, StreamObserver<Common.JdbcResultSetResponse> responseObserver) {
-        try {
+        try (var slot = AdmissionControl.reserveResultSet()) {
             var metaData = ObjectManager.getConnection(request.getConnectionId()).getMetaData();
 
             var resultSet = new ResultSetEx(metaData.getProcedures(
@@ -72,7 +70,8 @@ public class MetaDataServiceImpl extends MetaDataServiceGrpc.MetaDataServiceImpl
                     Strings.emptyToNull(request.getSchemaPattern()),
                     Strings.emptyToNull(request.getProcedureNamePattern())));
 
-            var resultSetId = ObjectManager.putResultSet(resultSet);
+            resultSet.setSlot(slot.detach());
+            var resultSetId = ObjectManager.putResultSet(request.getConnectionId(), resultSet);
 
             var responseBuilder = Common.JdbcResultSetResponse.newBuilder()
                     .setResultSetId(resultSetId)
@@ -82,15 +81,13 @@ public class MetaDataServiceImpl extends MetaDataServiceGrpc.MetaDataServiceImpl
             responseObserver.onNext(responseBuilder.build());
             responseObserver.onCompleted();
         } catch (Throwable e) {
-            responseObserver.onError(Status.INTERNAL
-                    .withDescription(e.getMessage())
-                    .asRuntimeException());
+            responseObserver.onError(Utils.toStatusException(e));
         }
     }
 
     @Override
     public void getFunctions(Metadata.GetFunctionsRequest request, StreamObserver<Common.JdbcResultSetResponse> responseObserver) {
-        try {
+        try (var slot = AdmissionControl.reserveResultSet()) {
             var metaData = ObjectManager.getConnection(request.getConnectionId()).getMetaData();
 
             var resultSet = new ResultSetEx(metaData.getFunctions(
@@ -98,7 +95,8 @@ public class MetaDataServiceImpl extends MetaDataServiceGrpc.MetaDataServiceImpl
                     Strings.emptyToNull(request.getSchemaPattern()),
                     Strings.emptyToNull(request.getFunctionNamePattern())));
 
-            var resultSetId = ObjectManager.putResultSet(resultSet);
+            resultSet.setSlot(slot.detach());
+            var resultSetId = ObjectManager.putResultSet(request.getConnectionId(), resultSet);
 
             var responseBuilder = Common.JdbcResultSetResponse.newBuilder()
                     .setResultSetId(resultSetId)
@@ -108,9 +106,7 @@ public class MetaDataServiceImpl extends MetaDataServiceGrpc.MetaDataServiceImpl
             responseObserver.onNext(responseBuilder.build());
             responseObserver.onCompleted();
         } catch (Throwable e) {
-            responseObserver.onError(Status.INTERNAL
-                    .withDescription(e.getMessage())
-                    .asRuntimeException());
+            responseObserver.onError(Utils.toStatusException(e));
         }
     }
     //endregion
@@ -128,9 +124,7 @@ public class MetaDataServiceImpl extends MetaDataServiceGrpc.MetaDataServiceImpl
             responseObserver.onNext(response);
             responseObserver.onCompleted();
         } catch (Throwable e) {
-            responseObserver.onError(Status.INTERNAL
-                    .withDescription(e.getMessage())
-                    .asRuntimeException());
+            responseObserver.onError(Utils.toStatusException(e));
         }
     }
 
@@ -146,9 +140,7 @@ public class MetaDataServiceImpl extends MetaDataServiceGrpc.MetaDataServiceImpl
             responseObserver.onNext(response);
             responseObserver.onCompleted();
         } catch (Throwable e) {
-            responseObserver.onError(Status.INTERNAL
-                    .withDescription(e.getMessage())
-                    .asRuntimeException());
+            responseObserver.onError(Utils.toStatusException(e));
         }
     }
     //endregion
@@ -1,271 +1,288 @@
 package com.chequer.jdbcnet.bridge.service;
 
 import com.chequer.jdbcnet.bridge.manager.ObjectManager;
+import com.chequer.jdbcnet.bridge.models.ChunkOptions;
+import com.chequer.jdbcnet.bridge.models.LobHandle;
+import com.chequer.jdbcnet.bridge.models.ResultSetChunk;
+import com.chequer.jdbcnet.bridge.models.ResultSetEx;
+import com.chequer.jdbcnet.bridge.utils.CancellationScope;
 import com.chequer.jdbcnet.bridge.utils.Utils;
+import com.google.protobuf.ByteString;
 import com.google.protobuf.Empty;
 import com.google.protobuf.UnsafeByteOperations;
-import io.grpc.Status;
-import io.grpc.netty.shaded.io.netty.buffer.ByteBuf;
-import io.grpc.netty.shaded.io.netty.buffer.ByteBufAllocator;
-import io.grpc.netty.shaded.io.netty.util.ReferenceCountUtil;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
-import proto.Common;
 import proto.reader.Reader;
 import proto.reader.ReaderServiceGrpc;
 
 import java.io.IOException;
-import java.math.BigDecimal;
-import java.math.BigInteger;
-import java.nio.CharBuffer;
-import java.nio.charset.StandardCharsets;
-import java.sql.*;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.sql.SQLException;
 
 public class ReaderServiceImpl extends ReaderServiceGrpc.ReaderServiceImplBase {
+    public StreamObserver<Reader.ReadResultSetRequest> readResultSetChunks(final StreamObserver<ResultSetChunk> responseObserver) {
+        return new ReadResultSetObserver((ServerCallStreamObserver<ResultSetChunk>) responseObserver);
+    }
+
     @Override
-    public StreamObserver<Reader.ReadResultSetRequest> readResultSet(final StreamObserver<Reader.ReadResultSetResponse> responseObserver) {
-        return new StreamObserver<>() {
-            public void onNext(Reader.ReadResultSetRequest readResultSetRequest) {
-                try {
-                    var resultSet = ObjectManager.getResultSet(readResultSetRequest.getResultSetId());
-                    var resultSetMetaData = resultSet.getMetaData();
-                    var responseBuilder = Reader.ReadResultSetResponse.newBuilder();
-                    var responseBuffer = ByteBufAllocator.DEFAULT.ioBuffer();
-                    var columnCount = resultSetMetaData.getColumnCount();
-
-                    try {
-                        var start = System.currentTimeMillis();
-
-                        while (resultSet.getHasRows()) {
-                            for (int i = 1; i <= columnCount; i++) {
-                                encodeValue(responseBuffer, resultSet.getObject(i));
-                            }
-
-                            if (System.currentTimeMillis() - start >= 1000 || responseBuffer.readableBytes() >= readResultSetRequest.getChunkSize()) {
-                                responseBuilder.setRows(UnsafeByteOperations.unsafeWrap(responseBuffer.nioBuffer()));
-                                responseBuilder.setIsCompleted(!resultSet.next());
-                                responseObserver.onNext(responseBuilder.build());
-                                return;
-                            }
-
-                            if (!resultSet.next()) {
-                                break;
-                            }
-                        }
-
-                        if (responseBuilder.getRows() != null) {
-                            responseBuilder.setRows(UnsafeByteOperations.unsafeWrap(responseBuffer.nioBuffer()));
-                            responseBuilder.setIsCompleted(true);
-                            responseObserver.onNext(responseBuilder.build());
-                        }
-                    } finally {
-                        responseBuffer.release();
-                    }
+    public void closeResultSet(Reader.CloseResultSetRequest request, StreamObserver<Empty> responseObserver) {
+        try {
+            ObjectManager.closeResultSet(request.getResultSetId());
 
-                    onCompleted();
-                } catch (Throwable e) {
-                    onError(e);
-                }
-            }
+            var response = Empty.newBuilder()
+                    .build();
 
-            public void onError(Throwable throwable) {
-                responseObserver.onError(Status.INTERNAL
-                        .withDescription(throwable.getMessage())
-                        .asRuntimeException());
-            }
+            responseObserver.onNext(response);
+            responseObserver.onCompleted();
+        } catch (Throwable e) {
+            responseObserver.onError(Utils.toStatusException(e));
+        }
+    }
 
-            public void onCompleted() {
-                responseObserver.onCompleted();
-            }
-        };
+    @Override
+    public void readLob(Reader.ReadLobRequest request, StreamObserver<Reader.ReadLobResponse> responseObserver) {
+        try {
+            var lob = ObjectManager.getLob(request.getLobId());
+
+            if (lob == null)
+                throw new SQLException("LOB '" + request.getLobId() + "' is not available");
+
+            new ReadLobStreamer(lob, request, (ServerCallStreamObserver<Reader.ReadLobResponse>) responseObserver).start();
+        } catch (Throwable e) {
+            responseObserver.onError(Utils.toStatusException(e));
+        }
     }
 
-    private void encodeValue(ByteBuf buffer, Object value) throws SQLException, IOException {
-        if (value == null) {
-            // | TYPE(1) |
-            buffer.writeByte((byte) Common.JdbcItemType.NULL_VALUE);
-        } else if (value instanceof String) {
-            buffer.writeByte((byte) Common.JdbcItemType.TEXT_VALUE);
-            writeText(buffer, (String) value);
-        } else if (value instanceof Byte) {
-            // | TYPE(1) | VALUE(1) |
-            buffer.writeByte((byte) Common.JdbcItemType.BYTE_VALUE);
-            buffer.writeByte((byte) value);
-        } else if (value instanceof Short) {
-            // | TYPE(1) | VALUE(2) |
-            buffer.writeByte((byte) Common.JdbcItemType.SHORT_VALUE);
-            buffer.writeShortLE((short) value);
-        } else if (value instanceof Integer) {
-            // | TYPE(1) | VALUE(4) |
-            buffer.writeByte((byte) Common.JdbcItemType.INTEGER_VALUE);
-            buffer.writeIntLE((int) value);
-        } else if (value instanceof Long) {
-            // | TYPE(1) | VALUE(8) |
-            buffer.writeByte((byte) Common.JdbcItemType.LONG_VALUE);
-            buffer.writeLongLE((long) value);
-        } else if (value instanceof Float) {
-            // | TYPE(1) | VALUE(4) |
-            buffer.writeByte((byte) Common.JdbcItemType.FLOAT_VALUE);
-            buffer.writeFloatLE((float) value);
-        } else if (value instanceof Double) {
-            // | TYPE(1) | VALUE(8) |
-            buffer.writeByte((byte) Common.JdbcItemType.DOUBLE_VALUE);
-            buffer.writeDoubleLE((double) value);
-        } else if (value instanceof Character) {
-            // | TYPE(1) | VALUE(2) |
-            buffer.writeByte((byte) Common.JdbcItemType.CHAR_VALUE);
-            buffer.writeShortLE((char) value);
-        } else if (value instanceof Boolean) {
-            // | TYPE(1) | VALUE(1) |
-            buffer.writeByte((byte) Common.JdbcItemType.BOOLEAN_VALUE);
-            buffer.writeBoolean((boolean) value);
-        } else if (value instanceof BigInteger) {
-            // | TYPE(1) | LENGTH(4) | VALUE(N) |
-            var bigInteger = (BigInteger) value;
-            buffer.writeByte((byte) Common.JdbcItemType.BIG_INTEGER_VALUE);
-            buffer.writeIntLE(bigInteger.bitLength() / 8 + 1);
-            buffer.writeBytes(bigInteger.toByteArray());
-        } else if (value instanceof BigDecimal) {
-            // | TYPE(1) | SCALE(4) | LENGTH(4) | VALUE(N) |
-            var bigDecimal = (BigDecimal) value;
-            var bigInteger = bigDecimal.unscaledValue();
-
-            if (bigDecimal.scale() > 0) {
-                buffer.writeByte((byte) Common.JdbcItemType.BIG_DECIMAL_VALUE);
-                buffer.writeIntLE(bigDecimal.scale());
-            } else {
-                buffer.writeByte((byte) Common.JdbcItemType.BIG_INTEGER_VALUE);
-            }
+    @Override
+    public void freeLob(Reader.FreeLobRequest request, StreamObserver<Empty> responseObserver) {
+        try {
+            var lob = ObjectManager.removeLob(request.getLobId());
 
-            buffer.writeIntLE(bigInteger.bitLength() / 8 + 1);
-            buffer.writeBytes(bigInteger.toByteArray());
-        } else if (value instanceof LocalDate) {
-            // | TYPE(1) | VALUE(8) |
-            buffer.writeByte((byte) Common.JdbcItemType.DATE_VALUE);
-            buffer.writeLongLE(Date.valueOf((LocalDate) value).getTime());
-        } else if (value instanceof LocalDateTime) {
-            // | TYPE(1) | VALUE(8) |
-            buffer.writeByte((byte) Common.JdbcItemType.DATE_TIME_VALUE);
-            buffer.writeLongLE(Timestamp.valueOf((LocalDateTime) value).getTime());
-        } else if (value instanceof LocalTime) {
-            // | TYPE(1) | VALUE(8) |
-            buffer.writeByte((byte) Common.JdbcItemType.TIME_VALUE);
-            buffer.writeLongLE(java.sql.Time.valueOf((LocalTime) value).getTime());
-        } else if (value.getClass() == java.sql.Date.class) {
-            // | TYPE(1) | VALUE(8) |
-            buffer.writeByte((byte) Common.JdbcItemType.DATE_VALUE);
-            buffer.writeLongLE(((java.sql.Date) value).getTime());
-        } else if (value.getClass() == java.sql.Time.class) {
-            // | TYPE(1) | VALUE(8) |
-            buffer.writeByte((byte) Common.JdbcItemType.TIME_VALUE);
-            buffer.writeLongLE(((java.sql.Time) value).getTime());
-        } else if (value instanceof java.util.Date) {
-            // | TYPE(1) | VALUE(8) |
-            buffer.writeByte((byte) Common.JdbcItemType.DATE_TIME_VALUE);
-            buffer.writeLongLE(((java.util.Date) value).getTime());
-        } else if (value instanceof byte[]) {
-            // | TYPE(1) | LENGTH(4) | VALUE(N) |
-            var byteValue = (byte[]) value;
-            buffer.writeByte((byte) Common.JdbcItemType.BINARY_VALUE);
-            buffer.writeIntLE(byteValue.length);
-            buffer.writeBytes(byteValue);
-        } else if (value instanceof Clob) {
-            // | TYPE(1) | LENGTH(4) | VALUE(N) |
-            try (var reader = ((Clob) value).getCharacterStream()) {
-                buffer.writeByte((byte) Common.JdbcItemType.TEXT_VALUE);
-                writeText(buffer, reader);
+            if (lob != null) {
+                lob.free();
             }
-        } else if (value instanceof Blob) {
-            // | TYPE(1) | LENGTH(4) | VALUE(N) |
-            try (var stream = ((Blob) value).getBinaryStream()) {
-                buffer.writeByte((byte) Common.JdbcItemType.BINARY_VALUE);
-                buffer.writeIntLE(0);
-                var written = buffer.writeBytes(stream, -1);
-
-                if (written > 0) {
-                    buffer.markWriterIndex();
-                    buffer.writerIndex(buffer.writerIndex() - written - 4);
-                    buffer.writeIntLE(written);
-                    buffer.resetWriterIndex();
+
+            var response = Empty.newBuilder()
+                    .build();
+
+            responseObserver.onNext(response);
+            responseObserver.onCompleted();
+        } catch (Throwable e) {
+            responseObserver.onError(Utils.toStatusException(e));
+        }
+    }
+
+    // Sends a LOB range in pieces of at most 'pieceSize' bytes (characters for a Clob) while the transport is ready
+    private static class ReadLobStreamer {
+        //region Constants
+        private static final int DEFAULT_PIECE_SIZE = 64 * 1024;
+        //endregion
+
+        //region Fields
+        private final LobHandle _lob;
+        private final ServerCallStreamObserver<Reader.ReadLobResponse> _responseObserver;
+        private final int _pieceSize;
+        private final long _end;
+        private long _position;
+        private boolean _isCompleted;
+        //endregion
+
+        //region Constructor
+        public ReadLobStreamer(LobHandle lob, Reader.ReadLobRequest request, ServerCallStreamObserver<Reader.ReadLobResponse> responseObserver) {
+            _lob = lob;
+            _responseObserver = responseObserver;
+            _pieceSize = request.getPieceSize() > 0 ? request.getPieceSize() : DEFAULT_PIECE_SIZE;
+            _position = Math.min(Math.max(0, request.getOffset()), lob.getLength());
+            _end = request.getLength() > 0 ? Math.min(lob.getLength(), _position + request.getLength()) : lob.getLength();
+
+            _responseObserver.setOnReadyHandler(this::drain);
+            _responseObserver.setOnCancelHandler(this::cancel);
+        }
+        //endregion
+
+        //region Public Methods
+        public void start() {
+            drain();
+        }
+        //endregion
+
+        //region Private Methods
+        private synchronized void drain() {
+            try {
+                // cancel() waits for this lock, so the cancellation is checked here as well
+                while (!_isCompleted && !_responseObserver.isCancelled() && _responseObserver.isReady()) {
+                    var length = (int) Math.min(_pieceSize, _end - _position);
+
+                    var data = _lob.isClob()
+                            ? ByteString.copyFromUtf8(_lob.getSubString(_position, length))
+                            : UnsafeByteOperations.unsafeWrap(_lob.getBytes(_position, length));
+
+                    _position += length;
+
+                    var response = Reader.ReadLobResponse.newBuilder()
+                            .setData(data)
+                            .setIsCompleted(_position >= _end)
+                            .build();
+
+                    _responseObserver.onNext(response);
+
+                    if (_position >= _end) {
+                        _isCompleted = true;
+                        _responseObserver.onCompleted();
+                    }
                 }
+            } catch (Throwable e) {
+                _isCompleted = true;
+                _responseObserver.onError(Utils.toStatusException(e));
             }
-        } else if (value instanceof Array) {
-            var byteString = new StringBuilder("{");
+        }
+
+        private synchronized void cancel() {
+            _isCompleted = true;
+        }
+        //endregion
+    }
+
+    // In pull mode every request produces one chunk. A request with 'streaming' set switches the call to push mode:
+    // chunks are emitted while the transport is ready and resume from the onReady handler, so HTTP/2 flow control
+    // bounds how far the bridge runs ahead of the client.
+    // The prefetch producer may resume a drain from its own thread, so the callbacks are synchronized.
+    private static class ReadResultSetObserver implements StreamObserver<Reader.ReadResultSetRequest> {
+        //region Fields
+        private final ServerCallStreamObserver<ResultSetChunk> _responseObserver;
+        private ResultSetEx _resultSet;
+        private ChunkOptions _options;
+        private boolean _isStreaming;
+        private boolean _isCompleted;
+        //endregion
+
+        //region Constructor
+        public ReadResultSetObserver(ServerCallStreamObserver<ResultSetChunk> responseObserver) {
+            _responseObserver = responseObserver;
+            _responseObserver.setOnReadyHandler(this::onReady);
+            _responseObserver.setOnCancelHandler(this::onCancel);
+        }
+        //endregion
+
+        //region StreamObserver
+        @Override
+        public synchronized void onNext(Reader.ReadResultSetRequest readResultSetRequest) {
+            if (_isCompleted || _isStreaming)
+                return;
 
-            var arr = ((Object[]) ((Array) value).getArray());
-            for (Object v : arr) {
-                if (byteString.length() > 1) {
-                    byteString.append(", ");
+            try {
+                var resultSet = ObjectManager.getResultSet(readResultSetRequest.getResultSetId());
+                _resultSet = resultSet;
+                _options = ChunkOptions.from(readResultSetRequest);
+
+                if (readResultSetRequest.getPrefetchDepth() > 0) {
+                    resultSet.startPrefetch(_options, readResultSetRequest.getPrefetchDepth(), readResultSetRequest.getPrefetchBytes());
+                }
+
+                if (readResultSetRequest.getStreaming()) {
+                    _isStreaming = true;
+
+                    drain();
+                    return;
                 }
 
-                if (v instanceof byte[]) {
-                    byteString.append(Utils.bytesToHex((byte[]) v));
-                } else {
-                    byteString.append(v);
+                try (var scope = openCancellationScope()) {
+                    writeChunk(resultSet.nextChunk(_options));
                 }
+            } catch (Throwable e) {
+                fail(e);
             }
+        }
 
-            byteString.append("}");
+        @Override
+        public synchronized void onError(Throwable throwable) {
+            fail(throwable);
+        }
 
-            buffer.writeByte((byte) Common.JdbcItemType.TEXT_VALUE);
-            writeText(buffer, byteString);
-        } else {
-            buffer.writeByte((byte) Common.JdbcItemType.UNKNOWN_VALUE);
-            writeText(buffer, value.toString());
+        @Override
+        public synchronized void onCompleted() {
+            // A half-closed request stream does not stop a push mode read, the last chunk completes the call.
+            if (_isStreaming)
+                return;
+
+            complete();
+        }
+        //endregion
+
+        //region Private Methods
+        private synchronized void onReady() {
+            try {
+                drain();
+            } catch (Throwable e) {
+                fail(e);
+            }
         }
-    }
 
-    private void writeText(ByteBuf buffer, CharSequence value) {
-        buffer.writeIntLE(0);
-        var written = buffer.writeCharSequence(value, StandardCharsets.UTF_8);
+        private void onCancel() {
+            ResultSetEx resultSet;
 
-        if (written > 0) {
-            buffer.markWriterIndex();
-            buffer.writerIndex(buffer.writerIndex() - written - 4);
-            buffer.writeIntLE(written);
-            buffer.resetWriterIndex();
+            synchronized (this) {
+                _isCompleted = true;
+                resultSet = _resultSet;
+            }
+
+            // Outside the lock: stopping waits for the producer, which may be about to resume a drain
+            if (resultSet != null) {
+                resultSet.stopPrefetch();
+            }
         }
-    }
 
-    private void writeText(ByteBuf buffer, java.io.Reader reader) throws IOException {
-        buffer.writeIntLE(0);
+        private void drain() throws SQLException, IOException {
+            try (var scope = openCancellationScope()) {
+                while (_isStreaming && !_isCompleted && _responseObserver.isReady()) {
+                    // With prefetch enabled the producer resumes the drain once the next chunk is queued
+                    var chunk = _resultSet.pollChunk(_options, this::onReady);
 
-        var written = 0;
-        var charBuffer = CharBuffer.allocate(4096);
-        int read;
+                    if (chunk == null)
+                        return;
 
-        while ((read = reader.read(charBuffer)) >= 0) {
-            charBuffer.flip();
-            written += buffer.writeCharSequence(charBuffer.subSequence(0, read), StandardCharsets.UTF_8);
+                    writeChunk(chunk);
+                }
+            }
         }
 
-        if (written > 0) {
-            buffer.markWriterIndex();
-            buffer.writerIndex(buffer.writerIndex() - written - 4);
-            buffer.writeIntLE(written);
-            buffer.resetWriterIndex();
+        // Without prefetch the fetch runs on this call, so cancelling the call cancels the statement and the driver
+        // returns from a blocked fetch. The producer owns the statement while it prefetches, it stops on cancel.
+        private CancellationScope openCancellationScope() throws SQLException {
+            if (_resultSet.isPrefetching())
+                return null;
+
+            var statement = _resultSet.getStatement();
+            return statement == null ? null : CancellationScope.open(statement);
         }
-    }
 
-    @Override
-    public void closeResultSet(Reader.CloseResultSetRequest request, StreamObserver<Empty> responseObserver) {
-        try {
-            var resultSet = ObjectManager.getResultSet(request.getResultSetId());
-            resultSet.close();
+        private void writeChunk(ResultSetChunk chunk) {
+            // The marshaller retains the rows until the transport has drained them, this only drops our reference
+            try {
+                _responseObserver.onNext(chunk);
+            } finally {
+                chunk.release();
+            }
 
-            ObjectManager.removeResultSet(request.getResultSetId());
+            if (chunk.isCompleted()) {
+                complete();
+            }
+        }
 
-            var response = Empty.newBuilder()
-                    .build();
+        private void complete() {
+            if (_isCompleted)
+                return;
 
-            responseObserver.onNext(response);
-            responseObserver.onCompleted();
-        } catch (Throwable e) {
-            responseObserver.onError(Status.INTERNAL
-                    .withDescription(e.getMessage())
-                    .asRuntimeException());
+            _isCompleted = true;
+            _responseObserver.onCompleted();
+        }
+
+        private void fail(Throwable throwable) {
+            if (_isCompleted)
+                return;
+
+            _isCompleted = true;
+            _responseObserver.onError(Utils.toStatusException(throwable));
         }
+        //endregion
     }
 }
@@ -0,0 +1,215 @@
+package com.chequer.jdbcnet.bridge.service;
+
+import com.chequer.jdbcnet.bridge.manager.CallScope;
+import com.google.protobuf.Empty;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import proto.Common;
+import proto.database.Database;
+import proto.session.Session;
+import proto.session.SessionServiceGrpc;
+import proto.statement.Statement;
+
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+public class SessionServiceImpl extends SessionServiceGrpc.SessionServiceImplBase {
+    //region Fields
+    private final DatabaseServiceImpl _databaseService;
+    private final StatementServiceImpl _statementService;
+    private final ReaderServiceImpl _readerService;
+    //endregion
+
+    //region Constructor
+    public SessionServiceImpl(DatabaseServiceImpl databaseService, StatementServiceImpl statementService, ReaderServiceImpl readerService) {
+        _databaseService = databaseService;
+        _statementService = statementService;
+        _readerService = readerService;
+    }
+    //endregion
+
+    @Override
+    public StreamObserver<Session.SessionRequest> openSession(StreamObserver<Session.SessionResponse> responseObserver) {
+        return new SessionObserver((ServerCallStreamObserver<Session.SessionResponse>) responseObserver);
+    }
+
+    // Requests of one call are delivered one after another, so operations run in order and the client can
+    // keep sending without waiting for each response. The next request is only pulled once the transport can
+    // take another response, so a client that doesn't read its responses stops the session instead of
+    // making the bridge buffer them.
+    private class SessionObserver implements StreamObserver<Session.SessionRequest> {
+        //region Fields
+        private final ServerCallStreamObserver<Session.SessionResponse> _responseObserver;
+        private boolean _isLastFailed;
+        private boolean _isWaitingReady;
+        private boolean _isClosed;
+        //endregion
+
+        //region Constructor
+        public SessionObserver(ServerCallStreamObserver<Session.SessionResponse> responseObserver) {
+            _responseObserver = responseObserver;
+            _responseObserver.disableAutoRequest();
+            _responseObserver.setOnReadyHandler(this::onReady);
+            _responseObserver.request(1);
+        }
+        //endregion
+
+        //region StreamObserver
+        @Override
+        public void onNext(Session.SessionRequest request) {
+            if (_isClosed)
+                return;
+
+            var responseBuilder = Session.SessionResponse.newBuilder()
+                    .setTag(request.getTag());
+
+            if (request.getChained() && _isLastFailed) {
+                setError(responseBuilder, Status.ABORTED.withDescription("Skipped because the previous operation failed"));
+            } else {
+                // The session outlives its operations, so each one pins the objects it uses only while it runs
+                try (var scope = CallScope.open()) {
+                    _isLastFailed = !execute(request, responseBuilder);
+                }
+            }
+
+            _responseObserver.onNext(responseBuilder.build());
+
+            if (_responseObserver.isReady()) {
+                _responseObserver.request(1);
+            } else {
+                _isWaitingReady = true;
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            _isClosed = true;
+        }
+
+        @Override
+        public void onCompleted() {
+            if (_isClosed)
+                return;
+
+            _isClosed = true;
+            _responseObserver.onCompleted();
+        }
+        //endregion
+
+        //region Private Methods
+        // Runs on the same serialized executor as onNext, so the flag needs no synchronization
+        private void onReady() {
+            if (_isClosed || !_isWaitingReady)
+                return;
+
+            _isWaitingReady = false;
+            _responseObserver.request(1);
+        }
+
+        private boolean execute(Session.SessionRequest request, Session.SessionResponse.Builder responseBuilder) {
+            switch (request.getOperationCase()) {
+                case CHANGECATALOG:
+                    return SessionServiceImpl.<Empty>invoke(responseBuilder, o -> _databaseService.changeCatalog(request.getChangeCatalog(), o), Session.SessionResponse.Builder::setEmpty);
+
+                case SETAUTOCOMMIT:
+                    return SessionServiceImpl.<Empty>invoke(responseBuilder, o -> _databaseService.setAutoCommit(request.getSetAutoCommit(), o), Session.SessionResponse.Builder::setEmpty);
+
+                case GETTRANSACTIONISOLATION:
+                    return SessionServiceImpl.<Database.GetTransactionIsolationResponse>invoke(responseBuilder, o -> _databaseService.getTransactionIsolation(request.getGetTransactionIsolation(), o), Session.SessionResponse.Builder::setTransactionIsolation);
+
+                case SETTRANSACTIONISOLATION:
+                    return SessionServiceImpl.<Empty>invoke(responseBuilder, o -> _databaseService.setTransactionIsolation(request.getSetTransactionIsolation(), o), Session.SessionResponse.Builder::setEmpty);
+
+                case COMMIT:
+                    return SessionServiceImpl.<Empty>invoke(responseBuilder, o -> _databaseService.commit(request.getCommit(), o), Session.SessionResponse.Builder::setEmpty);
+
+                case ROLLBACK:
+                    return SessionServiceImpl.<Empty>invoke(responseBuilder, o -> _databaseService.rollback(request.getRollback(), o), Session.SessionResponse.Builder::setEmpty);
+
+                case PREPARESTATEMENT:
+                    return SessionServiceImpl.<Statement.PrepareStatementResponse>invoke(responseBuilder, o -> _statementService.prepareStatement(request.getPrepareStatement(), o), Session.SessionResponse.Builder::setPrepareStatement);
+
+                case CREATESTATEMENT:
+                    return SessionServiceImpl.<Statement.CreateStatementResponse>invoke(responseBuilder, o -> _statementService.createStatement(request.getCreateStatement(), o), Session.SessionResponse.Builder::setCreateStatement);
+
+                case EXECUTESTATEMENT:
+                    return SessionServiceImpl.<Common.JdbcResultSetResponse>invoke(responseBuilder, o -> _statementService.executeStatement(request.getExecuteStatement(), o), Session.SessionResponse.Builder::setResultSet);
+
+                case SETPARAMETER:
+                    return SessionServiceImpl.<Empty>invoke(responseBuilder, o -> _statementService.setParameter(request.getSetParameter(), o), Session.SessionResponse.Builder::setEmpty);
+
+                case BINDPARAMETERS:
+                    return SessionServiceImpl.<Empty>invoke(responseBuilder, o -> _statementService.bindParameters(request.getBindParameters(), o), Session.SessionResponse.Builder::setEmpty);
+
+                case EXECUTEBATCH:
+                    return SessionServiceImpl.<Statement.ExecuteBatchResponse>invoke(responseBuilder, o -> _statementService.executeBatch(request.getExecuteBatch(), o), Session.SessionResponse.Builder::setExecuteBatch);
+
+                case EXECUTEDIRECT:
+                    return SessionServiceImpl.<Statement.ExecuteDirectResponse>invoke(responseBuilder, o -> _statementService.executeDirect(request.getExecuteDirect(), o), Session.SessionResponse.Builder::setExecuteDirect);
+
+                case NEXTRESULT:
+                    return SessionServiceImpl.<Common.JdbcResultSetResponse>invoke(responseBuilder, o -> _statementService.nextResult(request.getNextResult(), o), Session.SessionResponse.Builder::setResultSet);
+
+                case CLOSESTATEMENT:
+                    return SessionServiceImpl.<Empty>invoke(responseBuilder, o -> _statementService.closeStatement(request.getCloseStatement(), o), Session.SessionResponse.Builder::setEmpty);
+
+                case CLOSERESULTSET:
+                    return SessionServiceImpl.<Empty>invoke(responseBuilder, o -> _readerService.closeResultSet(request.getCloseResultSet(), o), Session.SessionResponse.Builder::setEmpty);
+
+                default:
+                    setError(responseBuilder, Status.INVALID_ARGUMENT.withDescription("Operation is not set"));
+                    return false;
+            }
+        }
+        //endregion
+    }
+
+    //region Private Methods
+    // Runs a unary service method against a capturing observer and copies its result or error into the response
+    private static <T> boolean invoke(Session.SessionResponse.Builder responseBuilder, Consumer<StreamObserver<T>> call, BiConsumer<Session.SessionResponse.Builder, T> setResult) {
+        var observer = new ResultObserver<T>();
+        call.accept(observer);
+
+        if (observer._error != null) {
+            setError(responseBuilder, Status.fromThrowable(observer._error));
+            return false;
+        }
+
+        setResult.accept(responseBuilder, observer._value);
+        return true;
+    }
+
+    private static void setError(Session.SessionResponse.Builder responseBuilder, Status status) {
+        responseBuilder
+                .setErrorCode(status.getCode().value())
+                .setErrorMessage(Optional.ofNullable(status.getDescription()).orElse(""));
+    }
+    //endregion
+
+    //region ResultObserver
+    private static class ResultObserver<T> implements StreamObserver<T> {
+        //region Fields
+        private T _value;
+        private Throwable _error;
+        //endregion
+
+        //region StreamObserver
+        @Override
+        public void onNext(T value) {
+            _value = value;
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            _error = throwable;
+        }
+
+        @Override
+        public void onCompleted() {
+        }
+        //endregion
+    }
+    //endregion
+}
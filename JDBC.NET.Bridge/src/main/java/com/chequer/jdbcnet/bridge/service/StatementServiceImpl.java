@@ -1,18 +1,34 @@
 package com.chequer.jdbcnet.bridge.service;
 
+import com.chequer.jdbcnet.bridge.codec.ParameterBinder;
+import com.chequer.jdbcnet.bridge.codec.ParameterTypes;
+import com.chequer.jdbcnet.bridge.codec.RowEncoder;
+import com.chequer.jdbcnet.bridge.codec.ValueDecoder;
+import com.chequer.jdbcnet.bridge.manager.AdmissionControl;
 import com.chequer.jdbcnet.bridge.manager.ObjectManager;
+import com.chequer.jdbcnet.bridge.manager.StatementCache;
+import com.chequer.jdbcnet.bridge.models.ChunkOptions;
 import com.chequer.jdbcnet.bridge.models.ResultSetEx;
+import com.chequer.jdbcnet.bridge.utils.CancellationScope;
 import com.chequer.jdbcnet.bridge.utils.Utils;
+import com.google.protobuf.ByteString;
 import com.google.protobuf.Empty;
 import io.grpc.Status;
+import io.grpc.netty.shaded.io.netty.buffer.Unpooled;
 import io.grpc.stub.StreamObserver;
 import proto.Common;
+import proto.reader.Reader;
 import proto.statement.Statement;
 import proto.statement.StatementServiceGrpc;
 
+import java.io.IOException;
+import java.sql.Connection;
 import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Savepoint;
 import java.sql.Time;
 
 public class StatementServiceImpl extends StatementServiceGrpc.StatementServiceImplBase {
@@ -21,8 +37,10 @@ public class StatementServiceImpl extends StatementServiceGrpc.StatementServiceI
     public void prepareStatement(Statement.PrepareStatementRequest request, StreamObserver<Statement.PrepareStatementResponse> responseObserver) {
         try {
             var connection = ObjectManager.getConnection(request.getConnectionId());
-            var statement = connection.prepareStatement(request.getSql(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
-            var statementId = ObjectManager.putStatement(statement);
+            var statement = StatementCache.prepare(request.getConnectionId(), connection, request.getSql(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY,
+                    request.getReturnGeneratedKeys(), request.getKeyColumnNamesList());
+            var statementId = ObjectManager.putStatement(request.getConnectionId(), statement,
+                    request.getReturnGeneratedKeys() || request.getKeyColumnNamesCount() > 0);
 
             var response = Statement.PrepareStatementResponse.newBuilder()
                     .setStatementId(statementId)
@@ -31,9 +49,7 @@ public class StatementServiceImpl extends StatementServiceGrpc.StatementServiceI
             responseObserver.onNext(response);
             responseObserver.onCompleted();
         } catch (Throwable e) {
-            responseObserver.onError(Status.INTERNAL
-                    .withDescription(e.getMessage())
-                    .asRuntimeException());
+            responseObserver.onError(Utils.toStatusException(e));
         }
     }
 
@@ -42,7 +58,7 @@ public class StatementServiceImpl extends StatementServiceGrpc.StatementServiceI
         try {
             var connection = ObjectManager.getConnection(request.getConnectionId());
             var statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
-            var statementId = ObjectManager.putStatement(statement);
+            var statementId = ObjectManager.putStatement(request.getConnectionId(), statement);
 
             var response = Statement.CreateStatementResponse.newBuilder()
                     .setStatementId(statementId)
@@ -51,50 +67,61 @@ public class StatementServiceImpl extends StatementServiceGrpc.StatementServiceI
             responseObserver.onNext(response);
             responseObserver.onCompleted();
         } catch (Throwable e) {
-            responseObserver.onError(Status.INTERNAL
-                    .withDescription(e.getMessage())
-                    .asRuntimeException());
+            responseObserver.onError(Utils.toStatusException(e));
         }
     }
 
     @Override
     public void executeStatement(Statement.ExecuteStatementRequest request, StreamObserver<Common.JdbcResultSetResponse> responseObserver) {
-        try {
+        // The result set slot is taken before anything runs, an execution that returns no result set gives it back
+        try (var slot = AdmissionControl.reserveResultSet()) {
             var statement = ObjectManager.getStatement(request.getStatementId());
+            ObjectManager.closeResultSets(request.getStatementId());
             statement.setFetchSize(request.getFetchSize() == -1 ? statement.getMaxRows() : request.getFetchSize());
 
-            boolean result;
-            if (statement instanceof PreparedStatement) {
-                var preparedStatement = (PreparedStatement)statement;
-                result = preparedStatement.execute();
+            if (statement instanceof PreparedStatement && (request.getReturnGeneratedKeys() || request.getKeyColumnNamesCount() > 0)) {
+                checkGeneratedKeys(request.getStatementId());
             }
-            else {
-                result = statement.execute(request.getSql());
+
+            boolean result;
+            try (var permit = AdmissionControl.acquireExecution(); var scope = CancellationScope.open(statement)) {
+                if (statement instanceof PreparedStatement) {
+                    var preparedStatement = (PreparedStatement)statement;
+
+                    if (request.getParametersCount() > 0) {
+                        ParameterBinder.bindParameters(preparedStatement, request.getParametersList());
+                    }
+
+                    result = preparedStatement.execute();
+                }
+                else if (request.getKeyColumnNamesCount() > 0) {
+                    result = statement.execute(request.getSql(), request.getKeyColumnNamesList().toArray(new String[0]));
+                }
+                else if (request.getReturnGeneratedKeys()) {
+                    result = statement.execute(request.getSql(), java.sql.Statement.RETURN_GENERATED_KEYS);
+                }
+                else {
+                    result = statement.execute(request.getSql());
+                }
             }
 
-            if (!result) {
-                var responseBuilder = Common.JdbcResultSetResponse.newBuilder()
-                        .setRecordsAffected(statement.getUpdateCount());
+            var responseBuilder = Common.JdbcResultSetResponse.newBuilder();
 
-                responseObserver.onNext(responseBuilder.build());
+            if (!result) {
+                responseBuilder.setRecordsAffected(statement.getUpdateCount());
             } else {
-                var resultSet = new ResultSetEx(statement.getResultSet());
-                var resultSetMetaData = resultSet.getMetaData();
-                var resultSetId = ObjectManager.putResultSet(resultSet);
-
-                var responseBuilder = Common.JdbcResultSetResponse.newBuilder()
-                        .setResultSetId(resultSetId)
-                        .setHasRows(resultSet.getHasRows());
+                addResultSet(responseBuilder, request.getStatementId(), statement.getResultSet(), request.getFirstChunkSize(), request.getLobThreshold(), slot);
+            }
 
-                Utils.addColumns(responseBuilder, resultSetMetaData);
-                responseObserver.onNext(responseBuilder.build());
+            if (request.getReturnGeneratedKeys() || request.getKeyColumnNamesCount() > 0) {
+                addGeneratedKeys(responseBuilder.getGeneratedKeysBuilder(), statement);
             }
 
+            responseObserver.onNext(responseBuilder.build());
+
             responseObserver.onCompleted();
         } catch (Throwable e) {
-            responseObserver.onError(Status.INTERNAL
-                    .withDescription(e.getMessage())
-                    .asRuntimeException());
+            responseObserver.onError(Utils.toStatusException(e));
         }
     }
 
@@ -110,19 +137,14 @@ public class StatementServiceImpl extends StatementServiceGrpc.StatementServiceI
             responseObserver.onNext(response);
             responseObserver.onCompleted();
         } catch (Throwable e) {
-            responseObserver.onError(Status.INTERNAL
-                    .withDescription(e.getMessage())
-                    .asRuntimeException());
+            responseObserver.onError(Utils.toStatusException(e));
         }
     }
 
     @Override
     public void closeStatement(Statement.CloseStatementRequest request, StreamObserver<Empty> responseObserver) {
         try {
-            var statement = ObjectManager.getStatement(request.getStatementId());
-            statement.close();
-
-            ObjectManager.removeStatement(request.getStatementId());
+            ObjectManager.closeStatement(request.getStatementId());
 
             var response = Empty.newBuilder()
                     .build();
@@ -130,9 +152,7 @@ public class StatementServiceImpl extends StatementServiceGrpc.StatementServiceI
             responseObserver.onNext(response);
             responseObserver.onCompleted();
         } catch (Throwable e) {
-            responseObserver.onError(Status.INTERNAL
-                    .withDescription(e.getMessage())
-                    .asRuntimeException());
+            responseObserver.onError(Utils.toStatusException(e));
         }
     }
 
@@ -193,9 +213,491 @@ public class StatementServiceImpl extends StatementServiceGrpc.StatementServiceI
             responseObserver.onNext(response);
             responseObserver.onCompleted();
         } catch (Throwable e) {
-            responseObserver.onError(Status.INTERNAL
-                    .withDescription(e.getMessage())
-                    .asRuntimeException());
+            responseObserver.onError(Utils.toStatusException(e));
+        }
+    }
+
+    @Override
+    public void bindParameters(Statement.BindParametersRequest request, StreamObserver<Empty> responseObserver) {
+        try {
+            var statement = ObjectManager.getStatement(request.getStatementId());
+
+            if (!(statement instanceof PreparedStatement))
+                throw new Exception("Must be prepared");
+
+            ParameterBinder.bindParameters((PreparedStatement) statement, request.getParametersList());
+
+            var response = Empty.newBuilder()
+                    .build();
+
+            responseObserver.onNext(response);
+            responseObserver.onCompleted();
+        } catch (Throwable e) {
+            responseObserver.onError(Utils.toStatusException(e));
+        }
+    }
+
+    @Override
+    public void executeBatch(Statement.ExecuteBatchRequest request, StreamObserver<Statement.ExecuteBatchResponse> responseObserver) {
+        try {
+            var statement = ObjectManager.getStatement(request.getStatementId());
+            ObjectManager.closeResultSets(request.getStatementId());
+
+            if (!(statement instanceof PreparedStatement))
+                throw new Exception("Must be prepared");
+
+            var preparedStatement = (PreparedStatement) statement;
+            var parameterCount = request.getParameterCount() > 0
+                    ? request.getParameterCount()
+                    : preparedStatement.getParameterMetaData().getParameterCount();
+
+            if (parameterCount == 0)
+                throw new Exception("Parameter count is unknown");
+
+            if (request.getReturnGeneratedKeys()) {
+                checkGeneratedKeys(request.getStatementId());
+            }
+
+            var responseBuilder = Statement.ExecuteBatchResponse.newBuilder();
+            var rows = Unpooled.wrappedBuffer(request.getRows().asReadOnlyByteBuffer());
+            var parameterTypes = ObjectManager.getParameterTypes(request.getStatementId());
+            var pending = 0;
+
+            try (var permit = AdmissionControl.acquireExecution(); var scope = CancellationScope.open(preparedStatement)) {
+                // | ROW(PARAMETER_COUNT values)... | in the reader's value encoding
+                while (rows.isReadable()) {
+                    for (int i = 1; i <= parameterCount; i++) {
+                        ValueDecoder.bindValue(rows, preparedStatement, parameterTypes, i);
+                    }
+
+                    preparedStatement.addBatch();
+                    pending++;
+
+                    if (pending == request.getBatchSize()) {
+                        addUpdateCounts(responseBuilder, executeBatch(preparedStatement, request.getLarge()));
+                        pending = 0;
+
+                        if (request.getReturnGeneratedKeys()) {
+                            addGeneratedKeys(responseBuilder.getGeneratedKeysBuilder(), preparedStatement);
+                        }
+                    }
+                }
+
+                if (pending > 0) {
+                    addUpdateCounts(responseBuilder, executeBatch(preparedStatement, request.getLarge()));
+
+                    if (request.getReturnGeneratedKeys()) {
+                        addGeneratedKeys(responseBuilder.getGeneratedKeysBuilder(), preparedStatement);
+                    }
+                }
+            } catch (Throwable e) {
+                preparedStatement.clearBatch();
+                throw e;
+            }
+
+            responseObserver.onNext(responseBuilder.build());
+            responseObserver.onCompleted();
+        } catch (Throwable e) {
+            responseObserver.onError(Utils.toStatusException(e));
+        }
+    }
+
+    @Override
+    public StreamObserver<Statement.BulkLoadRequest> bulkLoad(StreamObserver<Statement.BulkLoadResponse> responseObserver) {
+        return new BulkLoadObserver(responseObserver);
+    }
+
+    @Override
+    public void executeDirect(Statement.ExecuteDirectRequest request, StreamObserver<Statement.ExecuteDirectResponse> responseObserver) {
+        try (var slot = AdmissionControl.reserveResultSet()) {
+            var connection = ObjectManager.getConnection(request.getConnectionId());
+            var statement = StatementCache.prepare(request.getConnectionId(), connection, request.getSql(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY,
+                    request.getReturnGeneratedKeys(), request.getKeyColumnNamesList());
+            var statementId = ObjectManager.putStatement(request.getConnectionId(), statement,
+                    request.getReturnGeneratedKeys() || request.getKeyColumnNamesCount() > 0);
+            var resultBuilder = Common.JdbcResultSetResponse.newBuilder();
+
+            try {
+                statement.setFetchSize(request.getFetchSize() == -1 ? statement.getMaxRows() : request.getFetchSize());
+                ParameterBinder.bindParameters(statement, request.getParametersList());
+
+                boolean result;
+                try (var permit = AdmissionControl.acquireExecution(); var scope = CancellationScope.open(statement)) {
+                    result = statement.execute();
+                }
+
+                if (result) {
+                    addResultSet(resultBuilder, statementId, statement.getResultSet(), request.getFirstChunkSize(), request.getLobThreshold(), slot);
+                } else {
+                    resultBuilder.setRecordsAffected(statement.getUpdateCount());
+                }
+
+                if (request.getReturnGeneratedKeys() || request.getKeyColumnNamesCount() > 0) {
+                    addGeneratedKeys(resultBuilder.getGeneratedKeysBuilder(), statement);
+                }
+            } catch (Throwable e) {
+                ObjectManager.closeStatement(statementId);
+                throw e;
+            }
+
+            var responseBuilder = Statement.ExecuteDirectResponse.newBuilder();
+
+            // An open result set still needs its statement, so only an exhausted one lets it go
+            if (request.getAutoClose() && resultBuilder.getResultSetId().isEmpty()) {
+                ObjectManager.closeStatement(statementId);
+            } else {
+                responseBuilder.setStatementId(statementId);
+            }
+
+            responseObserver.onNext(responseBuilder.setResult(resultBuilder).build());
+            responseObserver.onCompleted();
+        } catch (Throwable e) {
+            responseObserver.onError(Utils.toStatusException(e));
+        }
+    }
+
+    @Override
+    public void nextResult(Statement.NextResultRequest request, StreamObserver<Common.JdbcResultSetResponse> responseObserver) {
+        try (var slot = AdmissionControl.reserveResultSet()) {
+            var statement = ObjectManager.getStatement(request.getStatementId());
+
+            // CLOSE_CURRENT_RESULT closes the driver result set, a prefetch must not be left reading it
+            if (!request.getKeepCurrent()) {
+                ObjectManager.closeCurrentResultSet(request.getStatementId());
+            }
+
+            // Drivers may run the next statement of a batch or procedure only now
+            boolean hasResultSet;
+            try (var permit = AdmissionControl.acquireExecution(); var scope = CancellationScope.open(statement)) {
+                hasResultSet = statement.getMoreResults(request.getKeepCurrent()
+                        ? java.sql.Statement.KEEP_CURRENT_RESULT
+                        : java.sql.Statement.CLOSE_CURRENT_RESULT);
+            }
+
+            var responseBuilder = Common.JdbcResultSetResponse.newBuilder();
+
+            if (hasResultSet) {
+                addResultSet(responseBuilder, request.getStatementId(), statement.getResultSet(), request.getFirstChunkSize(), request.getLobThreshold(), slot);
+            } else {
+                var updateCount = statement.getUpdateCount();
+
+                // No result set and no update count marks the end of the results
+                if (updateCount == -1) {
+                    responseBuilder.setNoMoreResults(true);
+                } else {
+                    responseBuilder.setRecordsAffected(updateCount);
+                }
+            }
+
+            responseObserver.onNext(responseBuilder.build());
+            responseObserver.onCompleted();
+        } catch (Throwable e) {
+            responseObserver.onError(Utils.toStatusException(e));
+        }
+    }
+
+    //region Private Methods
+    private static long[] executeBatch(PreparedStatement statement, boolean large) throws SQLException {
+        if (large) {
+            try {
+                return statement.executeLargeBatch();
+            } catch (UnsupportedOperationException | SQLFeatureNotSupportedException ignored) {
+                // Pre-4.2 drivers only have executeBatch, the batch is still queued
+            }
+        }
+
+        var counts = statement.executeBatch();
+        var largeCounts = new long[counts.length];
+
+        for (int i = 0; i < counts.length; i++) {
+            largeCounts[i] = counts[i];
+        }
+
+        return largeCounts;
+    }
+
+    // Asking for keys after the fact would only fail once the DML has run, so the mismatch is rejected up front
+    private static void checkGeneratedKeys(String statementId) {
+        if (!ObjectManager.returnsGeneratedKeys(statementId))
+            throw Status.INVALID_ARGUMENT
+                    .withDescription("The statement was not prepared to return generated keys")
+                    .asRuntimeException();
+    }
+
+    // Appends the rows of getGeneratedKeys() in the row format, so keys of several batches add up
+    private static void addGeneratedKeys(Common.JdbcGeneratedKeys.Builder keysBuilder, java.sql.Statement statement) throws SQLException, IOException {
+        try (var keys = statement.getGeneratedKeys()) {
+            if (keys == null)
+                return;
+
+            var metaData = keys.getMetaData();
+
+            if (keysBuilder.getColumnsCount() == 0) {
+                for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                    keysBuilder.addColumns(Utils.createColumn(metaData, i));
+                }
+            }
+
+            var encoder = new RowEncoder(metaData);
+            var buffer = Unpooled.buffer();
+
+            try {
+                while (keys.next()) {
+                    encoder.encode(keys, buffer);
+                }
+
+                keysBuilder.setRows(keysBuilder.getRows().concat(ByteString.copyFrom(buffer.nioBuffer())));
+            } finally {
+                buffer.release();
+            }
+        }
+    }
+
+    private static void addUpdateCounts(Statement.ExecuteBatchResponse.Builder responseBuilder, long[] counts) {
+        for (var count : counts) {
+            responseBuilder.addUpdateCounts(count);
+        }
+    }
+
+    // With firstChunkSize set, the first chunk (row format) is sent inline. A result set that fits entirely
+    // is closed right away and no resultSetId is returned, so the client needs neither readResultSet nor closeResultSet.
+    private static void addResultSet(Common.JdbcResultSetResponse.Builder responseBuilder, String statementId, ResultSet jdbcResultSet, int firstChunkSize, long lobThreshold,
+                                     AdmissionControl.ResultSetSlot slot) throws SQLException, IOException {
+        var resultSet = new ResultSetEx(jdbcResultSet);
+
+        try {
+            responseBuilder.setHasRows(resultSet.getHasRows());
+            Utils.addColumns(responseBuilder, resultSet.getMetaData());
+
+            if (firstChunkSize > 0) {
+                AdmissionControl.awaitChunkBudget();
+                var chunk = resultSet.readChunk(new ChunkOptions(firstChunkSize, Reader.ChunkFormat.ROW, Reader.ChunkCompression.UNCOMPRESSED, lobThreshold));
+
+                try {
+                    responseBuilder
+                            .setRows(ByteString.copyFrom(chunk.getRows().nioBuffer()))
+                            .setIsCompleted(chunk.isCompleted());
+                } finally {
+                    chunk.release();
+                }
+
+                if (chunk.isCompleted()) {
+                    resultSet.close();
+                    return;
+                }
+            }
+
+            // The open result set keeps the slot until it is closed
+            resultSet.setSlot(slot.detach());
+            responseBuilder.setResultSetId(ObjectManager.putResultSet(statementId, resultSet));
+        } catch (Throwable e) {
+            resultSet.close();
+            throw e;
+        }
+    }
+    //endregion
+
+    // Binds streamed rows into a prepared INSERT/UPSERT and flushes them every 'batchSize' rows.
+    // Rows are processed inside onNext, so the next message is only requested once the database has taken the current one.
+    private static class BulkLoadObserver implements StreamObserver<Statement.BulkLoadRequest> {
+        //region Constants
+        private static final int DEFAULT_BATCH_SIZE = 1000;
+        //endregion
+
+        //region Fields
+        private final StreamObserver<Statement.BulkLoadResponse> _responseObserver;
+        private final Statement.BulkLoadResponse.Builder _responseBuilder = Statement.BulkLoadResponse.newBuilder();
+        private PreparedStatement _statement;
+        private ParameterTypes _parameterTypes;
+        private Statement.BulkLoadRequest _options;
+        private int _parameterCount;
+        private int _batchSize;
+        private long _rowCount;
+        private long _updateCount;
+        private long _batchFirstRow;
+        private int _pending;
+        private long _uncommitted;
+        private boolean _isFailed;
+        //endregion
+
+        //region Constructor
+        public BulkLoadObserver(StreamObserver<Statement.BulkLoadResponse> responseObserver) {
+            _responseObserver = responseObserver;
+        }
+        //endregion
+
+        //region StreamObserver
+        @Override
+        public void onNext(Statement.BulkLoadRequest request) {
+            if (_isFailed)
+                return;
+
+            try {
+                if (_statement == null) {
+                    open(request);
+                }
+
+                var rows = Unpooled.wrappedBuffer(request.getRows().asReadOnlyByteBuffer());
+
+                while (rows.isReadable()) {
+                    for (int i = 1; i <= _parameterCount; i++) {
+                        ValueDecoder.bindValue(rows, _statement, _parameterTypes, i);
+                    }
+
+                    _statement.addBatch();
+                    _pending++;
+                    _rowCount++;
+
+                    if (_pending >= _batchSize) {
+                        flush();
+                    }
+                }
+            } catch (Throwable e) {
+                fail(e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (_statement == null)
+                return;
+
+            try {
+                _statement.clearBatch();
+
+                // Work since the last commit of this load is dropped. Without commitRows the transaction is the client's.
+                var connection = _statement.getConnection();
+
+                if (_options.getCommitRows() > 0 && !connection.getAutoCommit()) {
+                    connection.rollback();
+                    _uncommitted = 0;
+                }
+            } catch (Throwable ignored) {
+            }
+        }
+
+        @Override
+        public void onCompleted() {
+            if (_isFailed)
+                return;
+
+            try {
+                if (_statement != null) {
+                    flush();
+
+                    if (_options.getCommitRows() > 0 && _uncommitted > 0) {
+                        commit();
+                    }
+                }
+
+                var response = _responseBuilder
+                        .setRowCount(_rowCount)
+                        .setUpdateCount(_updateCount)
+                        .build();
+
+                _responseObserver.onNext(response);
+                _responseObserver.onCompleted();
+            } catch (Throwable e) {
+                fail(e);
+            }
+        }
+        //endregion
+
+        //region Private Methods
+        private void open(Statement.BulkLoadRequest request) throws Exception {
+            var statement = ObjectManager.getStatement(request.getStatementId());
+
+            if (!(statement instanceof PreparedStatement))
+                throw new Exception("Must be prepared");
+
+            _statement = (PreparedStatement) statement;
+            _parameterTypes = ObjectManager.getParameterTypes(request.getStatementId());
+            _options = request;
+            _batchSize = request.getBatchSize() > 0 ? request.getBatchSize() : DEFAULT_BATCH_SIZE;
+            _parameterCount = request.getParameterCount() > 0
+                    ? request.getParameterCount()
+                    : _statement.getParameterMetaData().getParameterCount();
+
+            if (_parameterCount == 0)
+                throw new Exception("Parameter count is unknown");
+        }
+
+        private void flush() throws SQLException {
+            if (_pending == 0)
+                return;
+
+            var rowCount = _pending;
+            _pending = 0;
+
+            // A failed batch may have applied part of its rows, or aborted the whole transaction (PostgreSQL).
+            // Inside a transaction a savepoint lets the load undo just this batch and go on.
+            var connection = _statement.getConnection();
+            var savepoint = _options.getContinueOnError() && !connection.getAutoCommit() ? connection.setSavepoint() : null;
+
+            try (var permit = AdmissionControl.acquireExecution()) {
+                var updateCount = 0L;
+
+                for (var count : executeBatch(_statement, false)) {
+                    if (count > 0) {
+                        updateCount += count;
+                    }
+                }
+
+                _updateCount += updateCount;
+                _uncommitted += rowCount;
+                releaseSavepoint(connection, savepoint);
+            } catch (SQLException e) {
+                _statement.clearBatch();
+
+                if (savepoint != null) {
+                    connection.rollback(savepoint);
+                }
+
+                if (!_options.getContinueOnError())
+                    throw e;
+
+                _responseBuilder.addErrors(Statement.BulkLoadError.newBuilder()
+                        .setFirstRow(_batchFirstRow)
+                        .setRowCount(rowCount)
+                        .setMessage(String.valueOf(e.getMessage())));
+            }
+
+            _responseBuilder.setBatchCount(_responseBuilder.getBatchCount() + 1);
+            _batchFirstRow = _rowCount;
+
+            if (_options.getCommitRows() > 0 && _uncommitted >= _options.getCommitRows()) {
+                commit();
+            }
+        }
+
+        private void commit() throws SQLException {
+            var connection = _statement.getConnection();
+
+            // With auto-commit every batch is already committed
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+
+            _uncommitted = 0;
+        }
+
+        private static void releaseSavepoint(Connection connection, Savepoint savepoint) {
+            if (savepoint == null)
+                return;
+
+            try {
+                connection.releaseSavepoint(savepoint);
+            } catch (SQLException ignored) {
+                // Some drivers (Oracle) can't release one, it goes away with the transaction
+            }
+        }
+
+        private void fail(Throwable throwable) {
+            _isFailed = true;
+            onError(throwable);
+
+            _responseObserver.onError(Utils.toStatusException(throwable));
         }
+        //endregion
     }
 }
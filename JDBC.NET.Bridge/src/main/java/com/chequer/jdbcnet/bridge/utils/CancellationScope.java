@@ -0,0 +1,77 @@
+package com.chequer.jdbcnet.bridge.utils;
+
+import io.grpc.Context;
+import io.grpc.Status;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ties a statement execution to the current gRPC call: a cancelled call cancels the statement,
+ * and the call deadline becomes the statement's query timeout until the scope is closed.
+ */
+public class CancellationScope implements AutoCloseable {
+    //region Fields
+    private final Statement _statement;
+    private final Context _context;
+    private final Context.CancellationListener _listener;
+    private final int _previousTimeout;
+    //endregion
+
+    //region Constructor
+    private CancellationScope(Statement statement) throws SQLException {
+        _statement = statement;
+        _context = Context.current();
+
+        var deadline = _context.getDeadline();
+
+        if (deadline != null) {
+            _previousTimeout = statement.getQueryTimeout();
+
+            // Query timeouts are whole seconds, round up so a short deadline does not turn into "no timeout"
+            var seconds = Math.max(1, (deadline.timeRemaining(TimeUnit.MILLISECONDS) + 999) / 1000);
+            statement.setQueryTimeout((int) Math.min(seconds, Integer.MAX_VALUE));
+        } else {
+            _previousTimeout = -1;
+        }
+
+        _listener = context -> cancel();
+        _context.addListener(_listener, Runnable::run);
+    }
+    //endregion
+
+    //region Public Methods
+    public static CancellationScope open(Statement statement) throws SQLException {
+        var scope = new CancellationScope(statement);
+
+        if (scope._context.isCancelled()) {
+            scope.close();
+
+            throw Status.CANCELLED
+                    .withDescription("Call was cancelled before the statement ran")
+                    .asRuntimeException();
+        }
+
+        return scope;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        _context.removeListener(_listener);
+
+        if (_previousTimeout >= 0) {
+            _statement.setQueryTimeout(_previousTimeout);
+        }
+    }
+    //endregion
+
+    //region Private Methods
+    private void cancel() {
+        try {
+            _statement.cancel();
+        } catch (Throwable ignored) {
+        }
+    }
+    //endregion
+}
@@ -1,5 +1,7 @@
 package com.chequer.jdbcnet.bridge.utils;
 
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
 import proto.Common;
 
 import java.nio.ByteBuffer;
@@ -22,38 +24,52 @@ public class Utils {
         return "0x" + new String(hexChars, StandardCharsets.UTF_8);
     }
 
+    // Keeps the status of a gRPC exception such as RESOURCE_EXHAUSTED, anything else is reported as INTERNAL
+    public static StatusRuntimeException toStatusException(Throwable e) {
+        if (e instanceof StatusRuntimeException)
+            return (StatusRuntimeException) e;
+
+        return Status.INTERNAL
+                .withDescription(e.getMessage())
+                .asRuntimeException();
+    }
+
     public static void addColumns(Common.JdbcResultSetResponse.Builder builder, ResultSetMetaData metaData) throws SQLException {
         for (int i = 1; i <= metaData.getColumnCount(); i++) {
-            var columnName = metaData.getColumnName(i);
-            var columnLabel = metaData.getColumnLabel(i);
-
-            builder.addColumns(Common.JdbcDataColumn.newBuilder()
-                    .setOrdinal(i - 1)
-                    .setTableName(Optional.ofNullable(metaData.getTableName(i)).orElse(""))
-                    .setSchemaName(Optional.ofNullable(metaData.getSchemaName(i)).orElse(""))
-                    .setCatalogName(Optional.ofNullable(metaData.getCatalogName(i)).orElse(""))
-                    .setColumnName(Optional.ofNullable(columnName).orElse(""))
-                    .setColumnLabel(Optional.ofNullable(columnLabel).orElse(""))
-                    .setColumnDisplaySize(metaData.getColumnDisplaySize(i))
-                    .setColumnPrecision(metaData.getPrecision(i))
-                    .setColumnScale(metaData.getScale(i))
-                    .setDataTypeName(Optional.ofNullable(metaData.getColumnTypeName(i)).orElse(""))
-                    .setDataTypeClassName(Optional.ofNullable(metaData.getColumnClassName(i)).orElse(""))
-                    .setDataTypeCode(metaData.getColumnType(i))
-                    .setIsAutoIncrement(metaData.isAutoIncrement(i))
-                    .setIsCaseSensitive(metaData.isCaseSensitive(i))
-                    .setIsDefinitelyWritable(metaData.isDefinitelyWritable(i))
-                    .setIsSearchable(metaData.isSearchable(i))
-                    .setIsNullable(metaData.isNullable(i))
-                    .setIsAliased(!columnName.equals(columnLabel))
-                    .setIsWritable(metaData.isWritable(i))
-                    .setIsCurrency(metaData.isCurrency(i))
-                    .setIsReadOnly(metaData.isReadOnly(i))
-                    .setIsSigned(metaData.isSigned(i))
-                    .build());
+            builder.addColumns(createColumn(metaData, i));
         }
     }
 
+    public static Common.JdbcDataColumn createColumn(ResultSetMetaData metaData, int i) throws SQLException {
+        var columnName = metaData.getColumnName(i);
+        var columnLabel = metaData.getColumnLabel(i);
+
+        return Common.JdbcDataColumn.newBuilder()
+                .setOrdinal(i - 1)
+                .setTableName(Optional.ofNullable(metaData.getTableName(i)).orElse(""))
+                .setSchemaName(Optional.ofNullable(metaData.getSchemaName(i)).orElse(""))
+                .setCatalogName(Optional.ofNullable(metaData.getCatalogName(i)).orElse(""))
+                .setColumnName(Optional.ofNullable(columnName).orElse(""))
+                .setColumnLabel(Optional.ofNullable(columnLabel).orElse(""))
+                .setColumnDisplaySize(metaData.getColumnDisplaySize(i))
+                .setColumnPrecision(metaData.getPrecision(i))
+                .setColumnScale(metaData.getScale(i))
+                .setDataTypeName(Optional.ofNullable(metaData.getColumnTypeName(i)).orElse(""))
+                .setDataTypeClassName(Optional.ofNullable(metaData.getColumnClassName(i)).orElse(""))
+                .setDataTypeCode(metaData.getColumnType(i))
+                .setIsAutoIncrement(metaData.isAutoIncrement(i))
+                .setIsCaseSensitive(metaData.isCaseSensitive(i))
+                .setIsDefinitelyWritable(metaData.isDefinitelyWritable(i))
+                .setIsSearchable(metaData.isSearchable(i))
+                .setIsNullable(metaData.isNullable(i))
+                .setIsAliased(!columnName.equals(columnLabel))
+                .setIsWritable(metaData.isWritable(i))
+                .setIsCurrency(metaData.isCurrency(i))
+                .setIsReadOnly(metaData.isReadOnly(i))
+                .setIsSigned(metaData.isSigned(i))
+                .build();
+    }
+
     public static <T> T[] emptyArrayToNull(T[] array) {
         if (array.length <= 0)
             return null;
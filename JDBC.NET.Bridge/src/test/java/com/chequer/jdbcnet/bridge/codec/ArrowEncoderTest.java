@@ -0,0 +1,248 @@
+package com.chequer.jdbcnet.bridge.codec;
+
+import com.chequer.jdbcnet.bridge.manager.ChunkBufferPool;
+import io.grpc.netty.shaded.io.netty.buffer.ByteBuf;
+import org.apache.arrow.flatbuf.Decimal;
+import org.apache.arrow.flatbuf.Message;
+import org.apache.arrow.flatbuf.MessageHeader;
+import org.apache.arrow.flatbuf.RecordBatch;
+import org.apache.arrow.flatbuf.Schema;
+import org.apache.arrow.flatbuf.Type;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.chequer.jdbcnet.bridge.codec.FakeResultSet.column;
+import static com.chequer.jdbcnet.bridge.codec.FakeResultSet.decimal;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ArrowEncoderTest {
+    //region Tests
+    @Test
+    public void nullsRoundTrip() throws Exception {
+        var resultSet = FakeResultSet.of(
+                new FakeResultSet.Column[] {
+                        column("id", Integer.class),
+                        column("name", String.class),
+                        column("active", Boolean.class),
+                        decimal("amount", 10, 2) },
+                new Object[] { 1, "one", true, new BigDecimal("1.5") },
+                new Object[] { null, null, null, null },
+                new Object[] { 3, "", false, new BigDecimal("-3.25") });
+
+        var stream = encode(new ArrowEncoder(resultSet.getMetaData()), resultSet);
+
+        assertArrayEquals(new byte[] { Type.Int, Type.Utf8, Type.Bool, Type.Decimal }, stream._types);
+        assertEquals(List.of("id", "name", "active", "amount"), stream._names);
+        assertTrue(stream._isEnded);
+        assertEquals(3, stream._rowCount);
+        assertArrayEquals(new long[] { 1, 1, 1, 1 }, stream._nullCounts);
+        assertEquals(Arrays.asList(1, null, 3), stream._columns.get(0));
+        assertEquals(Arrays.asList("one", null, ""), stream._columns.get(1));
+        assertEquals(Arrays.asList(true, null, false), stream._columns.get(2));
+        assertEquals(Arrays.asList(new BigDecimal("1.50"), null, new BigDecimal("-3.25")), stream._columns.get(3));
+    }
+
+    @Test
+    public void emptyChunkIsSchemaAndEndOfStream() throws Exception {
+        var resultSet = FakeResultSet.of(new FakeResultSet.Column[] { column("id", Integer.class), column("name", String.class) });
+        var stream = encode(new ArrowEncoder(resultSet.getMetaData()), resultSet);
+
+        assertArrayEquals(new byte[] { Type.Int, Type.Utf8 }, stream._types);
+        assertEquals(0, stream._batchCount);
+        assertTrue(stream._isEnded);
+    }
+
+    @Test
+    public void decimalWiderThanColumnIsRejected() throws Exception {
+        var resultSet = FakeResultSet.of(
+                new FakeResultSet.Column[] { decimal("amount", 5, 2) },
+                new Object[] { new BigDecimal("999.994") },
+                new Object[] { new BigDecimal("999.995") });
+
+        var encoder = new ArrowEncoder(resultSet.getMetaData());
+
+        try {
+            // Rounds to 999.99, which still fits DECIMAL(5, 2)
+            resultSet.next();
+            encoder.encode(resultSet);
+
+            // Rounds to 1000.00, which does not
+            resultSet.next();
+            var exception = assertThrows(SQLException.class, () -> encoder.encode(resultSet));
+
+            assertTrue(exception.getMessage().contains("DECIMAL(5, 2)"));
+        } finally {
+            encoder.release();
+        }
+    }
+
+    @Test
+    public void decimalWithoutPrecisionIsSentAsText() throws Exception {
+        var resultSet = FakeResultSet.of(
+                new FakeResultSet.Column[] { decimal("amount", 0, 0) },
+                new Object[] { new BigDecimal("1E+3") },
+                new Object[] { null });
+
+        var stream = encode(new ArrowEncoder(resultSet.getMetaData()), resultSet);
+
+        assertArrayEquals(new byte[] { Type.Utf8 }, stream._types);
+        assertEquals(Arrays.asList("1000", null), stream._columns.get(0));
+    }
+    //endregion
+
+    //region Private Methods
+    private static DecodedStream encode(ArrowEncoder encoder, ResultSet resultSet) throws Exception {
+        while (resultSet.next()) {
+            encoder.encode(resultSet);
+        }
+
+        var buffer = encoder.finish(true);
+
+        try {
+            return decode(buffer);
+        } finally {
+            ChunkBufferPool.recycle(buffer);
+            encoder.release();
+        }
+    }
+
+    private static DecodedStream decode(ByteBuf buffer) {
+        var stream = new DecodedStream();
+
+        while (buffer.isReadable()) {
+            assertEquals(0xFFFFFFFF, buffer.readIntLE());
+
+            var metadataLength = buffer.readIntLE();
+
+            if (metadataLength == 0) {
+                stream._isEnded = true;
+                break;
+            }
+
+            // Messages start on an 8-byte boundary
+            assertEquals(0, (8 + metadataLength) % 8);
+
+            var metadata = new byte[metadataLength];
+            buffer.readBytes(metadata);
+
+            var message = Message.getRootAsMessage(ByteBuffer.wrap(metadata));
+            var body = buffer.readSlice((int) message.bodyLength());
+
+            if (message.headerType() == MessageHeader.Schema) {
+                readSchema(stream, (Schema) message.header(new Schema()));
+            } else {
+                assertEquals(MessageHeader.RecordBatch, message.headerType());
+                readRecordBatch(stream, (RecordBatch) message.header(new RecordBatch()), body);
+            }
+        }
+
+        assertFalse(buffer.isReadable());
+        return stream;
+    }
+
+    private static void readSchema(DecodedStream stream, Schema schema) {
+        stream._types = new byte[schema.fieldsLength()];
+        stream._scales = new int[schema.fieldsLength()];
+
+        for (int i = 0; i < schema.fieldsLength(); i++) {
+            var field = schema.fields(i);
+
+            stream._types[i] = field.typeType();
+            stream._names.add(field.name());
+            stream._columns.add(new ArrayList<>());
+
+            if (field.typeType() == Type.Decimal) {
+                stream._scales[i] = ((Decimal) field.type(new Decimal())).scale();
+            }
+        }
+    }
+
+    private static void readRecordBatch(DecodedStream stream, RecordBatch batch, ByteBuf body) {
+        var rowCount = (int) batch.length();
+        var bufferIndex = 0;
+
+        stream._batchCount++;
+        stream._rowCount += rowCount;
+        stream._nullCounts = new long[stream._types.length];
+
+        for (int i = 0; i < stream._types.length; i++) {
+            stream._nullCounts[i] = batch.nodes(i).nullCount();
+
+            var validity = slice(body, batch, bufferIndex++);
+            var values = stream._columns.get(i);
+            var type = stream._types[i];
+
+            if (type == Type.Utf8) {
+                var offsets = slice(body, batch, bufferIndex++);
+                var data = slice(body, batch, bufferIndex++);
+
+                for (int row = 0; row < rowCount; row++) {
+                    var start = offsets.getIntLE(row * 4);
+                    var end = offsets.getIntLE(row * 4 + 4);
+
+                    values.add(isSet(validity, row) ? data.toString(start, end - start, StandardCharsets.UTF_8) : null);
+                }
+
+                continue;
+            }
+
+            var data = slice(body, batch, bufferIndex++);
+
+            for (int row = 0; row < rowCount; row++) {
+                if (!isSet(validity, row)) {
+                    values.add(null);
+                } else if (type == Type.Int) {
+                    values.add(data.getIntLE(row * 4));
+                } else if (type == Type.Bool) {
+                    values.add(isSet(data, row));
+                } else {
+                    // 128-bit little-endian two's complement
+                    var bigEndian = new byte[16];
+
+                    for (int b = 0; b < 16; b++) {
+                        bigEndian[15 - b] = data.getByte(row * 16 + b);
+                    }
+
+                    values.add(new BigDecimal(new BigInteger(bigEndian), stream._scales[i]));
+                }
+            }
+        }
+    }
+
+    private static ByteBuf slice(ByteBuf body, RecordBatch batch, int index) {
+        var buffer = batch.buffers(index);
+
+        // Buffers are 8-byte aligned within the body
+        assertEquals(0, buffer.offset() % 8);
+        return body.slice((int) buffer.offset(), (int) buffer.length());
+    }
+
+    private static boolean isSet(ByteBuf bitmap, int row) {
+        return (bitmap.getByte(row >>> 3) & (1 << (row & 7))) != 0;
+    }
+    //endregion
+
+    //region DecodedStream
+    private static class DecodedStream {
+        //region Fields
+        private final List<String> _names = new ArrayList<>();
+        private final List<List<Object>> _columns = new ArrayList<>();
+        private byte[] _types;
+        private int[] _scales;
+        private long[] _nullCounts;
+        private int _rowCount;
+        private int _batchCount;
+        private boolean _isEnded;
+        //endregion
+    }
+    //endregion
+}
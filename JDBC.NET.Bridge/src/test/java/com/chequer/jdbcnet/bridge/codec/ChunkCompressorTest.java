@@ -0,0 +1,108 @@
+package com.chequer.jdbcnet.bridge.codec;
+
+import com.chequer.jdbcnet.bridge.manager.ChunkBufferPool;
+import com.github.luben.zstd.Zstd;
+import io.grpc.netty.shaded.io.netty.buffer.ByteBuf;
+import net.jpountz.lz4.LZ4Factory;
+import org.junit.jupiter.api.Test;
+import proto.reader.Reader;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChunkCompressorTest {
+    //region Tests
+    @Test
+    public void lz4RoundTrip() {
+        var source = repeatingChunk(64 * 1024);
+        var compressed = new ChunkCompressor(Reader.ChunkCompression.LZ4).compress(source);
+
+        try {
+            assertNotNull(compressed);
+            assertTrue(compressed.readableBytes() < source.readableBytes());
+
+            var restored = LZ4Factory.fastestInstance().fastDecompressor().decompress(toBytes(compressed), source.readableBytes());
+
+            assertArrayEquals(toBytes(source), restored);
+        } finally {
+            ChunkBufferPool.recycle(compressed);
+            ChunkBufferPool.recycle(source);
+        }
+    }
+
+    @Test
+    public void zstdRoundTrip() {
+        var source = repeatingChunk(64 * 1024);
+        var compressed = new ChunkCompressor(Reader.ChunkCompression.ZSTD).compress(source);
+
+        try {
+            assertNotNull(compressed);
+            assertTrue(compressed.readableBytes() < source.readableBytes());
+
+            var restored = Zstd.decompress(toBytes(compressed), source.readableBytes());
+
+            assertArrayEquals(toBytes(source), restored);
+        } finally {
+            ChunkBufferPool.recycle(compressed);
+            ChunkBufferPool.recycle(source);
+        }
+    }
+
+    @Test
+    public void smallChunkIsSentAsIs() {
+        var source = repeatingChunk(1024);
+
+        try {
+            assertNull(new ChunkCompressor(Reader.ChunkCompression.LZ4).compress(source));
+        } finally {
+            ChunkBufferPool.recycle(source);
+        }
+    }
+
+    @Test
+    public void incompressibleChunksBackOff() {
+        var compressor = new ChunkCompressor(Reader.ChunkCompression.LZ4);
+        var random = new Random(42);
+        var noise = new byte[64 * 1024];
+        random.nextBytes(noise);
+
+        var source = ChunkBufferPool.acquire(noise.length).writeBytes(noise);
+
+        try {
+            // Random bytes don't shrink, so the chunk goes out as is and the next ones are not even tried
+            assertNull(compressor.compress(source));
+
+            var repeating = repeatingChunk(64 * 1024);
+
+            try {
+                assertNull(compressor.compress(repeating));
+            } finally {
+                ChunkBufferPool.recycle(repeating);
+            }
+        } finally {
+            ChunkBufferPool.recycle(source);
+        }
+    }
+    //endregion
+
+    //region Private Methods
+    private static ByteBuf repeatingChunk(int length) {
+        var buffer = ChunkBufferPool.acquire(length);
+        var row = "42|some repeating row text|2023-01-01|".getBytes(StandardCharsets.UTF_8);
+
+        while (buffer.writerIndex() + row.length <= length) {
+            buffer.writeBytes(row);
+        }
+
+        return buffer;
+    }
+
+    private static byte[] toBytes(ByteBuf buffer) {
+        var bytes = new byte[buffer.readableBytes()];
+        buffer.getBytes(buffer.readerIndex(), bytes);
+        return bytes;
+    }
+    //endregion
+}
@@ -0,0 +1,283 @@
+package com.chequer.jdbcnet.bridge.codec;
+
+import com.chequer.jdbcnet.bridge.manager.ChunkBufferPool;
+import io.grpc.netty.shaded.io.netty.buffer.ByteBuf;
+import org.junit.jupiter.api.Test;
+import proto.Common;
+import proto.reader.Reader;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.chequer.jdbcnet.bridge.codec.FakeResultSet.column;
+import static com.chequer.jdbcnet.bridge.codec.FakeResultSet.decimal;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColumnarEncoderTest {
+    //region Tests
+    @Test
+    public void nullsRoundTrip() throws Exception {
+        var resultSet = FakeResultSet.of(
+                new FakeResultSet.Column[] { column("id", Integer.class), column("name", String.class), decimal("amount", 10, 2) },
+                new Object[] { 1, "one", new BigDecimal("1.50") },
+                new Object[] { null, null, null },
+                new Object[] { 3, "", new BigDecimal("-3.25") });
+
+        var chunk = encode(new ColumnarEncoder(resultSet.getMetaData()), resultSet, true);
+
+        assertEquals(3, chunk._rowCount);
+        assertEquals(Common.JdbcItemType.INTEGER_VALUE, chunk._types[0]);
+        assertEquals(Common.JdbcItemType.TEXT_VALUE, chunk._types[1]);
+        assertEquals(Common.JdbcItemType.BIG_DECIMAL_VALUE, chunk._types[2]);
+        assertEquals(Arrays.asList(1, null, 3), chunk._columns.get(0));
+        assertEquals(Arrays.asList("one", null, ""), chunk._columns.get(1));
+        assertEquals(Arrays.asList(new BigDecimal("1.50"), null, new BigDecimal("-3.25")), chunk._columns.get(2));
+    }
+
+    @Test
+    public void emptyChunkCarriesColumnHeaders() throws Exception {
+        var resultSet = FakeResultSet.of(new FakeResultSet.Column[] { column("id", Integer.class), column("name", String.class) });
+        var encoder = new ColumnarEncoder(resultSet.getMetaData());
+        var buffer = encoder.finish(true);
+
+        try {
+            // Header, then type and encoding of both columns and the leading offset of the text column
+            assertEquals(8 + 2 + 2 + 4, buffer.readableBytes());
+
+            var chunk = decode(buffer);
+
+            assertEquals(0, chunk._rowCount);
+            assertEquals(Reader.ColumnEncoding.PLAIN_VALUE, chunk._encodings[1]);
+            assertEquals(List.of(), chunk._columns.get(0));
+            assertEquals(List.of(), chunk._columns.get(1));
+        } finally {
+            ChunkBufferPool.recycle(buffer);
+            encoder.release();
+        }
+    }
+
+    @Test
+    public void repeatingTextIsDictionaryEncoded() throws Exception {
+        var values = new ArrayList<String>();
+
+        for (int i = 0; i < 100; i++) {
+            values.add(i % 10 == 0 ? null : i % 2 == 0 ? "even" : "odd");
+        }
+
+        var resultSet = textResultSet(values);
+        var encoder = new ColumnarEncoder(resultSet.getMetaData());
+
+        while (resultSet.next()) {
+            encoder.encode(resultSet);
+        }
+
+        var size = encoder.getSize();
+        var buffer = encoder.finish(true);
+
+        try {
+            assertEquals(size, buffer.readableBytes());
+
+            var chunk = decode(buffer);
+
+            assertEquals(Reader.ColumnEncoding.DICTIONARY_VALUE, chunk._encodings[0]);
+            assertEquals(values, chunk._columns.get(0));
+        } finally {
+            ChunkBufferPool.recycle(buffer);
+            encoder.release();
+        }
+    }
+
+    @Test
+    public void distinctTextFallsBackToPlain() throws Exception {
+        var values = new ArrayList<String>();
+
+        for (int i = 0; i < 100; i++) {
+            values.add(i == 50 ? null : "value-" + i);
+        }
+
+        var resultSet = textResultSet(values);
+        var encoder = new ColumnarEncoder(resultSet.getMetaData());
+        var chunk = encode(encoder, resultSet, false);
+
+        assertEquals(Reader.ColumnEncoding.PLAIN_VALUE, chunk._encodings[0]);
+        assertEquals(values, chunk._columns.get(0));
+
+        // Once materialized the dictionary is not tried again, even for values that repeat
+        var repeated = Arrays.asList("same", "same", "same", "same");
+        var next = encode(encoder, textResultSet(repeated), true);
+
+        assertEquals(Reader.ColumnEncoding.PLAIN_VALUE, next._encodings[0]);
+        assertEquals(repeated, next._columns.get(0));
+    }
+
+    @Test
+    public void fullDictionaryIsMaterializedMidChunk() throws Exception {
+        var values = new ArrayList<String>();
+
+        for (int i = 0; i < 10000; i++) {
+            values.add(i % 7 == 0 ? null : "value-" + (i % 5000));
+        }
+
+        var resultSet = textResultSet(values);
+        var chunk = encode(new ColumnarEncoder(resultSet.getMetaData()), resultSet, true);
+
+        assertEquals(Reader.ColumnEncoding.PLAIN_VALUE, chunk._encodings[0]);
+        assertEquals(values, chunk._columns.get(0));
+    }
+    //endregion
+
+    //region Private Methods
+    private static ResultSet textResultSet(List<String> values) {
+        var rows = new Object[values.size()][];
+
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new Object[] { values.get(i) };
+        }
+
+        return FakeResultSet.of(new FakeResultSet.Column[] { column("name", String.class) }, rows);
+    }
+
+    private static DecodedChunk encode(ColumnarEncoder encoder, ResultSet resultSet, boolean isLast) throws Exception {
+        while (resultSet.next()) {
+            encoder.encode(resultSet);
+        }
+
+        var buffer = encoder.finish(isLast);
+
+        try {
+            return decode(buffer);
+        } finally {
+            ChunkBufferPool.recycle(buffer);
+
+            if (isLast) {
+                encoder.release();
+            }
+        }
+    }
+
+    private static DecodedChunk decode(ByteBuf buffer) {
+        var chunk = new DecodedChunk();
+        chunk._rowCount = buffer.readIntLE();
+
+        var columnCount = buffer.readIntLE();
+        chunk._types = new int[columnCount];
+        chunk._encodings = new int[columnCount];
+
+        for (int i = 0; i < columnCount; i++) {
+            chunk._types[i] = buffer.readUnsignedByte();
+            chunk._encodings[i] = buffer.readUnsignedByte();
+
+            var values = new ArrayList<Object>();
+            chunk._columns.add(values);
+
+            if (chunk._rowCount == 0) {
+                if (getWidth(chunk._types[i]) < 0) {
+                    assertEquals(0, buffer.readIntLE());
+                }
+
+                continue;
+            }
+
+            var validity = buffer.readSlice((chunk._rowCount + 7) / 8);
+
+            if (chunk._encodings[i] == Reader.ColumnEncoding.DICTIONARY_VALUE) {
+                var entries = readEntries(buffer, buffer.readIntLE());
+                var indexWidth = buffer.readUnsignedByte();
+
+                for (int row = 0; row < chunk._rowCount; row++) {
+                    var index = indexWidth == 1 ? buffer.readUnsignedByte() : buffer.readUnsignedShortLE();
+                    values.add(isValid(validity, row) ? new String(entries[index], StandardCharsets.UTF_8) : null);
+                }
+
+                continue;
+            }
+
+            var width = getWidth(chunk._types[i]);
+
+            if (width > 0) {
+                for (int row = 0; row < chunk._rowCount; row++) {
+                    var value = chunk._types[i] == Common.JdbcItemType.INTEGER_VALUE ? (Object) buffer.readIntLE() : buffer.readLongLE();
+                    values.add(isValid(validity, row) ? value : null);
+
+                    // Null slots of fixed-width vectors are zero-filled
+                    if (!isValid(validity, row)) {
+                        assertEquals(0L, ((Number) value).longValue());
+                    }
+                }
+
+                continue;
+            }
+
+            var entries = readEntries(buffer, chunk._rowCount);
+
+            for (int row = 0; row < chunk._rowCount; row++) {
+                if (!isValid(validity, row)) {
+                    assertEquals(0, entries[row].length);
+                    values.add(null);
+                } else if (chunk._types[i] == Common.JdbcItemType.BIG_DECIMAL_VALUE) {
+                    var entry = entries[row];
+                    var scale = (entry[0] & 0xff) | (entry[1] & 0xff) << 8 | (entry[2] & 0xff) << 16 | entry[3] << 24;
+                    values.add(new BigDecimal(new BigInteger(Arrays.copyOfRange(entry, 4, entry.length)), scale));
+                } else {
+                    values.add(new String(entries[row], StandardCharsets.UTF_8));
+                }
+            }
+        }
+
+        assertEquals(0, buffer.readableBytes());
+        return chunk;
+    }
+
+    // | OFFSETS((COUNT + 1) * 4) | DATA(OFFSETS[COUNT]) |
+    private static byte[][] readEntries(ByteBuf buffer, int count) {
+        var offsets = new int[count + 1];
+
+        for (int i = 0; i <= count; i++) {
+            offsets[i] = buffer.readIntLE();
+        }
+
+        var entries = new byte[count][];
+
+        for (int i = 0; i < count; i++) {
+            entries[i] = new byte[offsets[i + 1] - offsets[i]];
+            buffer.getBytes(buffer.readerIndex() + offsets[i], entries[i]);
+        }
+
+        buffer.skipBytes(offsets[count]);
+        return entries;
+    }
+
+    private static boolean isValid(ByteBuf validity, int row) {
+        return (validity.getByte(row >>> 3) & (1 << (row & 7))) != 0;
+    }
+
+    private static int getWidth(int itemType) {
+        switch (itemType) {
+            case Common.JdbcItemType.INTEGER_VALUE:
+                return 4;
+
+            case Common.JdbcItemType.LONG_VALUE:
+                return 8;
+
+            default:
+                return -1;
+        }
+    }
+    //endregion
+
+    //region DecodedChunk
+    private static class DecodedChunk {
+        //region Fields
+        private final List<List<Object>> _columns = new ArrayList<>();
+        private int _rowCount;
+        private int[] _types;
+        private int[] _encodings;
+        //endregion
+    }
+    //endregion
+}
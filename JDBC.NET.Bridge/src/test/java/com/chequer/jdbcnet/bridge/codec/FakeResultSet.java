@@ -0,0 +1,152 @@
+package com.chequer.jdbcnet.bridge.codec;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Types;
+
+/**
+ * In-memory {@link ResultSet} over fixed rows, only as much of JDBC as the chunk encoders call.
+ */
+class FakeResultSet {
+    //region Fields
+    private final Column[] _columns;
+    private final Object[][] _rows;
+    private int _row = -1;
+    private boolean _wasNull;
+    //endregion
+
+    //region Constructor
+    private FakeResultSet(Column[] columns, Object[][] rows) {
+        _columns = columns;
+        _rows = rows;
+    }
+    //endregion
+
+    //region Public Methods
+    public static Column column(String label, Class<?> type) {
+        return new Column(label, type.getName(), Types.OTHER, 0, 0);
+    }
+
+    public static Column decimal(String label, int precision, int scale) {
+        return new Column(label, BigDecimal.class.getName(), Types.DECIMAL, precision, scale);
+    }
+
+    public static ResultSet of(Column[] columns, Object[]... rows) {
+        var fake = new FakeResultSet(columns, rows);
+
+        return (ResultSet) Proxy.newProxyInstance(
+                ResultSet.class.getClassLoader(),
+                new Class<?>[] { ResultSet.class },
+                (proxy, method, args) -> fake.invoke(method.getName(), args));
+    }
+    //endregion
+
+    //region Private Methods
+    private Object invoke(String name, Object[] args) {
+        switch (name) {
+            case "next":
+                return ++_row < _rows.length;
+
+            case "wasNull":
+                return _wasNull;
+
+            case "getMetaData":
+                return Proxy.newProxyInstance(
+                        ResultSetMetaData.class.getClassLoader(),
+                        new Class<?>[] { ResultSetMetaData.class },
+                        (proxy, method, metaArgs) -> invokeMetaData(method.getName(), metaArgs));
+        }
+
+        if (!name.startsWith("get") || args == null || !(args[0] instanceof Integer))
+            throw new UnsupportedOperationException(name);
+
+        var value = _rows[_row][(int) args[0] - 1];
+        _wasNull = value == null;
+
+        switch (name) {
+            case "getString":
+                return value == null ? null : value.toString();
+
+            case "getBoolean":
+                return value != null && (Boolean) value;
+
+            case "getByte":
+                return value == null ? (byte) 0 : ((Number) value).byteValue();
+
+            case "getShort":
+                return value == null ? (short) 0 : ((Number) value).shortValue();
+
+            case "getInt":
+                return value == null ? 0 : ((Number) value).intValue();
+
+            case "getLong":
+                return value == null ? 0L : ((Number) value).longValue();
+
+            case "getFloat":
+                return value == null ? 0f : ((Number) value).floatValue();
+
+            case "getDouble":
+                return value == null ? 0d : ((Number) value).doubleValue();
+
+            default:
+                // getObject, getBigDecimal, getBytes, getDate, getTime, getTimestamp
+                return value;
+        }
+    }
+
+    private Object invokeMetaData(String name, Object[] args) {
+        if (name.equals("getColumnCount"))
+            return _columns.length;
+
+        var column = _columns[(int) args[0] - 1];
+
+        switch (name) {
+            case "getColumnLabel":
+            case "getColumnName":
+                return column._label;
+
+            case "getColumnClassName":
+                return column._className;
+
+            case "getColumnType":
+                return column._sqlType;
+
+            case "getPrecision":
+                return column._precision;
+
+            case "getScale":
+                return column._scale;
+
+            case "isNullable":
+                return ResultSetMetaData.columnNullable;
+
+            default:
+                throw new UnsupportedOperationException(name);
+        }
+    }
+    //endregion
+
+    //region Column
+    static class Column {
+        //region Fields
+        private final String _label;
+        private final String _className;
+        private final int _sqlType;
+        private final int _precision;
+        private final int _scale;
+        //endregion
+
+        //region Constructor
+        public Column(String label, String className, int sqlType, int precision, int scale) {
+            _label = label;
+            _className = className;
+            _sqlType = sqlType;
+            _precision = precision;
+            _scale = scale;
+        }
+        //endregion
+    }
+    //endregion
+}
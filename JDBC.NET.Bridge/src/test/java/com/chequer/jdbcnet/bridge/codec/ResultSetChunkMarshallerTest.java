@@ -0,0 +1,115 @@
+package com.chequer.jdbcnet.bridge.codec;
+
+import com.chequer.jdbcnet.bridge.models.ResultSetChunk;
+import com.google.protobuf.ByteString;
+import io.grpc.Drainable;
+import io.grpc.netty.shaded.io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+import proto.reader.Reader;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResultSetChunkMarshallerTest {
+    //region Tests
+    @Test
+    public void uncompressedChunkMatchesProtobuf() throws Exception {
+        var rows = "uncompressed rows".getBytes(StandardCharsets.UTF_8);
+        var chunk = new ResultSetChunk(Unpooled.wrappedBuffer(rows), Reader.ChunkFormat.COLUMNAR, false);
+
+        var expected = Reader.ReadResultSetResponse.newBuilder()
+                .setFormat(Reader.ChunkFormat.COLUMNAR)
+                .setUncompressedSize(rows.length)
+                .setRows(ByteString.copyFrom(rows))
+                .build();
+
+        // No compression field at all, as protobuf omits default values
+        assertSameMessage(expected, marshal(chunk));
+
+        chunk.release();
+    }
+
+    @Test
+    public void compressedChunkCarriesCompressionAndSize() throws Exception {
+        var rows = "compressed rows".getBytes(StandardCharsets.UTF_8);
+        var chunk = new ResultSetChunk(Unpooled.wrappedBuffer(rows), Reader.ChunkFormat.ARROW, Reader.ChunkCompression.ZSTD, 4096, true);
+
+        var expected = Reader.ReadResultSetResponse.newBuilder()
+                .setIsCompleted(true)
+                .setFormat(Reader.ChunkFormat.ARROW)
+                .setCompression(Reader.ChunkCompression.ZSTD)
+                .setUncompressedSize(4096)
+                .setRows(ByteString.copyFrom(rows))
+                .build();
+
+        assertSameMessage(expected, marshal(chunk));
+
+        chunk.release();
+    }
+
+    @Test
+    public void emptyChunkHasNoRowsField() throws Exception {
+        var chunk = new ResultSetChunk(Unpooled.EMPTY_BUFFER, Reader.ChunkFormat.ROW, true);
+        var expected = Reader.ReadResultSetResponse.newBuilder()
+                .setIsCompleted(true)
+                .build();
+
+        assertSameMessage(expected, marshal(chunk));
+
+        chunk.release();
+    }
+
+    @Test
+    public void drainedAndReadStreamsAreEqual() throws Exception {
+        var rows = "rows drained straight into the transport".getBytes(StandardCharsets.UTF_8);
+        var chunk = new ResultSetChunk(Unpooled.wrappedBuffer(rows), Reader.ChunkFormat.ROW, Reader.ChunkCompression.LZ4, 1000, false);
+
+        var drained = new ByteArrayOutputStream();
+
+        try (var stream = ResultSetChunkMarshaller.INSTANCE.stream(chunk)) {
+            // Read part of the header byte by byte, drain the rest
+            drained.write(stream.read());
+            drained.write(stream.read());
+            ((Drainable) stream).drainTo(drained);
+
+            assertEquals(-1, stream.read());
+        }
+
+        assertArrayEquals(marshal(chunk), drained.toByteArray());
+
+        chunk.release();
+    }
+
+    @Test
+    public void parseRestoresTheChunk() {
+        var rows = "parsed rows".getBytes(StandardCharsets.UTF_8);
+        var chunk = new ResultSetChunk(Unpooled.wrappedBuffer(rows), Reader.ChunkFormat.COLUMNAR, Reader.ChunkCompression.LZ4, 2048, true);
+        var parsed = ResultSetChunkMarshaller.INSTANCE.parse(ResultSetChunkMarshaller.INSTANCE.stream(chunk));
+
+        assertEquals(Reader.ChunkFormat.COLUMNAR, parsed.getFormat());
+        assertEquals(Reader.ChunkCompression.LZ4, parsed.getCompression());
+        assertEquals(2048, parsed.getUncompressedSize());
+        assertTrue(parsed.isCompleted());
+        assertEquals("parsed rows", parsed.getRows().toString(StandardCharsets.UTF_8));
+
+        parsed.release();
+        chunk.release();
+    }
+    //endregion
+
+    //region Private Methods
+    // Fields may come in another order than protobuf writes them, 'rows' is always last
+    private static void assertSameMessage(Reader.ReadResultSetResponse expected, byte[] actual) throws Exception {
+        assertEquals(expected, Reader.ReadResultSetResponse.parseFrom(actual));
+        assertEquals(expected.getSerializedSize(), actual.length);
+    }
+
+    private static byte[] marshal(ResultSetChunk chunk) throws Exception {
+        try (var stream = ResultSetChunkMarshaller.INSTANCE.stream(chunk)) {
+            return stream.readAllBytes();
+        }
+    }
+    //endregion
+}
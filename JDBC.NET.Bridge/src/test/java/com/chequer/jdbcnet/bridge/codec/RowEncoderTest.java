@@ -0,0 +1,40 @@
+package com.chequer.jdbcnet.bridge.codec;
+
+import io.grpc.netty.shaded.io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+import proto.Common;
+
+import static com.chequer.jdbcnet.bridge.codec.FakeResultSet.column;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RowEncoderTest {
+    //region Tests
+    @Test
+    public void textColumnKeepsTypeOfOtherValues() throws Exception {
+        // The driver reports java.lang.String, but hands out an Integer for the second row
+        var resultSet = FakeResultSet.of(
+                new FakeResultSet.Column[] { column("value", String.class) },
+                new Object[] { "text" },
+                new Object[] { 42 },
+                new Object[] { null });
+
+        var encoder = new RowEncoder(resultSet.getMetaData());
+        var buffer = Unpooled.buffer();
+
+        while (resultSet.next()) {
+            encoder.encode(resultSet, buffer);
+        }
+
+        var expected = Unpooled.buffer();
+        ValueEncoder.encodeValue(expected, "text");
+        ValueEncoder.encodeValue(expected, 42);
+        ValueEncoder.encodeValue(expected, null);
+
+        assertEquals(expected, buffer);
+        assertEquals(Common.JdbcItemType.INTEGER_VALUE, buffer.getByte(expected.writerIndex() - 6));
+
+        buffer.release();
+        expected.release();
+    }
+    //endregion
+}
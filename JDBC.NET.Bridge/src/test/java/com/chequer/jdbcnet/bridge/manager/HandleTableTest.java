@@ -0,0 +1,187 @@
+package com.chequer.jdbcnet.bridge.manager;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HandleTableTest {
+    //region Constants
+    private static final long GENERATION_MASK = 0xFFFFFF;
+    //endregion
+
+    //region Tests
+    @Test
+    public void putThenGet() {
+        var table = new HandleTable<String>(1);
+        var first = table.put("first");
+        var second = table.put("second");
+
+        assertNotEquals(first, second);
+        assertEquals("first", table.get(first));
+        assertEquals("second", table.get(second));
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    public void removedHandleIsRejected() {
+        var table = new HandleTable<String>(1);
+        var handle = table.put("value");
+
+        assertEquals("value", table.remove(handle));
+        assertNull(table.get(handle));
+        assertNull(table.remove(handle));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    public void staleHandleIsRejectedAfterSlotReuse() {
+        var table = new HandleTable<String>(1);
+        var stale = table.put("old");
+        table.remove(stale);
+
+        var handle = table.put("new");
+
+        // Same slot, next generation
+        assertEquals((int) stale, (int) handle);
+        assertNotEquals(stale, handle);
+        assertNull(table.get(stale));
+        assertNull(table.remove(stale));
+        assertEquals("new", table.get(handle));
+    }
+
+    @Test
+    public void handleOfAnotherTableIsRejected() {
+        var statements = new HandleTable<String>(1);
+        var connections = new HandleTable<String>(2);
+        var statement = statements.put("statement");
+        var connection = connections.put("connection");
+
+        // Both tables hand out the same slot and generation, only the tag differs
+        assertEquals(statement & 0x00FFFFFFFFFFFFFFL, connection & 0x00FFFFFFFFFFFFFFL);
+        assertNull(connections.get(statement));
+        assertNull(statements.get(connection));
+        assertNull(connections.remove(statement));
+        assertEquals("connection", connections.get(connection));
+    }
+
+    @Test
+    public void malformedHandleIsRejected() {
+        var table = new HandleTable<String>(1);
+        var handle = table.put("value");
+
+        assertNull(table.get(0));
+        assertNull(table.get(handle + 1));
+        assertNull(table.get(handle & ~(GENERATION_MASK << 32)));
+        assertNull(table.get(handle | 0xFFFFFFFFL));
+    }
+
+    @Test
+    public void generationWrapsAroundAndSkipsZero() {
+        var table = new HandleTable<String>(1);
+        var first = table.put("value");
+        var handle = first;
+
+        for (long i = 1; i < GENERATION_MASK; i++) {
+            table.remove(handle);
+            handle = table.put("value");
+
+            assertNotEquals(0, (handle >>> 32) & GENERATION_MASK);
+        }
+
+        assertEquals(GENERATION_MASK, (handle >>> 32) & GENERATION_MASK);
+
+        table.remove(handle);
+        var wrapped = table.put("wrapped");
+
+        assertNull(table.get(handle));
+        assertEquals(first, wrapped);
+        assertEquals("wrapped", table.get(wrapped));
+    }
+
+    @Test
+    public void tableGrowsBeyondOneSegment() {
+        var table = new HandleTable<Integer>(1);
+        var handles = new long[5000];
+
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = table.put(i);
+        }
+
+        for (int i = 0; i < handles.length; i++) {
+            assertEquals(i, table.get(handles[i]));
+        }
+
+        var seen = new int[1];
+        table.forEach(value -> seen[0]++);
+
+        assertEquals(handles.length, seen[0]);
+        assertEquals(handles.length, table.size());
+    }
+
+    @Test
+    public void concurrentPutGetRemove() throws Exception {
+        var table = new HandleTable<Long>(1);
+        var threads = 8;
+        var iterations = 20000;
+        var executor = Executors.newFixedThreadPool(threads);
+        var start = new CountDownLatch(1);
+        var futures = new ArrayList<Future<Void>>();
+
+        try {
+            for (int t = 0; t < threads; t++) {
+                var thread = (long) t;
+
+                futures.add(executor.submit((Callable<Void>) () -> {
+                    var stale = new ArrayList<Long>();
+                    start.await();
+
+                    for (int i = 0; i < iterations; i++) {
+                        var value = thread * iterations + i;
+                        var handle = table.put(value);
+
+                        assertEquals(value, table.get(handle));
+
+                        if (i % 3 != 0) {
+                            assertEquals(value, table.remove(handle));
+                            assertNull(table.get(handle));
+                            stale.add(handle);
+                        }
+
+                        // Slots freed by this thread may be reused by others, their old handles must stay dead
+                        if (stale.size() > 16) {
+                            for (var old : stale) {
+                                assertNull(table.get(old));
+                            }
+
+                            stale.clear();
+                        }
+                    }
+
+                    return null;
+                }));
+            }
+
+            start.countDown();
+
+            for (var future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        var expected = threads * ((iterations + 2) / 3);
+        var seen = new int[1];
+        table.forEach(value -> seen[0]++);
+
+        assertEquals(expected, table.size());
+        assertEquals(expected, seen[0]);
+    }
+    //endregion
+}
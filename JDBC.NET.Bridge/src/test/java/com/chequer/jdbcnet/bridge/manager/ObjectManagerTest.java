@@ -0,0 +1,67 @@
+package com.chequer.jdbcnet.bridge.manager;
+
+import com.chequer.jdbcnet.bridge.models.LobHandle;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.rowset.serial.SerialBlob;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ObjectManagerTest {
+    //region Tests
+    @Test
+    public void idResolvesToItsObject() throws Exception {
+        var lob = new LobHandle(new SerialBlob(new byte[]{1, 2, 3}));
+        var id = ObjectManager.putLob(lob);
+
+        try {
+            assertEquals(32, id.length());
+            assertSame(lob, ObjectManager.getLob(id));
+        } finally {
+            ObjectManager.removeLob(id);
+        }
+    }
+
+    @Test
+    public void idWithWrongSecretIsRejected() throws Exception {
+        var lob = new LobHandle(new SerialBlob(new byte[]{1}));
+        var id = ObjectManager.putLob(lob);
+
+        try {
+            // Same handle, last secret digit changed
+            var last = id.charAt(id.length() - 1);
+            var forged = id.substring(0, id.length() - 1) + (last == '0' ? '1' : '0');
+
+            assertNull(ObjectManager.getLob(forged));
+            assertNull(ObjectManager.removeLob(forged));
+            assertSame(lob, ObjectManager.getLob(id));
+        } finally {
+            ObjectManager.removeLob(id);
+        }
+    }
+
+    @Test
+    public void malformedIdIsRejected() throws Exception {
+        var id = ObjectManager.putLob(new LobHandle(new SerialBlob(new byte[]{1})));
+
+        try {
+            assertNull(ObjectManager.getLob(null));
+            assertNull(ObjectManager.getLob(""));
+            assertNull(ObjectManager.getLob(id.substring(1)));
+            assertNull(ObjectManager.getLob("z" + id.substring(1)));
+        } finally {
+            ObjectManager.removeLob(id);
+        }
+    }
+
+    @Test
+    public void removedIdIsRejected() throws Exception {
+        var lob = new LobHandle(new SerialBlob(new byte[]{1}));
+        var id = ObjectManager.putLob(lob);
+
+        assertSame(lob, ObjectManager.removeLob(id));
+        assertNull(ObjectManager.getLob(id));
+        assertNull(ObjectManager.removeLob(id));
+    }
+    //endregion
+}